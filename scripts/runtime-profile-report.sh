@@ -0,0 +1,145 @@
+#!/bin/bash
+set -euo pipefail
+
+# Runtime Profile Report
+# Starts the application jar once per runtime profile with the container memory limit emulated
+# (-XX:MaxRAM), records startup time and RSS, then drives load against every endpoint and records
+# p50/p99 latency and peak RSS. Writes a markdown report to target/runtime-profile-report.md.
+# -XX:MaxRAM only sizes the JVM's ergonomics, it does not cap RSS, so the peak RSS (VmHWM) of each
+# profile is compared with its pod memory limit and the script fails if it is exceeded.
+#
+# Usage: scripts/runtime-profile-report.sh [jar]
+# Env:   DURATION (seconds per endpoint, default 30), CONCURRENCY (default 4), PORT (default 18080)
+#        Uses `hey` for load when available, otherwise CONCURRENCY parallel curl loops.
+
+JAR="${1:-$(ls target/*.jar 2>/dev/null | grep -v plain | head -n 1 || true)}"
+DURATION="${DURATION:-30}"
+CONCURRENCY="${CONCURRENCY:-4}"
+PORT="${PORT:-18080}"
+REPORT="target/runtime-profile-report.md"
+ENDPOINTS=("/" "/ping" "/healthz" "/info")
+
+# Keep in sync with k8s/learn-java/values.yaml (resources.limits.memory and runtimeProfiles.small);
+# the default profile runs with the JVM's own container ergonomics
+DEFAULT_LIMIT_MB=512
+DEFAULT_OPTS="-XX:MaxRAM=${DEFAULT_LIMIT_MB}m"
+SMALL_LIMIT_MB=256
+SMALL_OPTS="-XX:MaxRAM=${SMALL_LIMIT_MB}m -XX:+UseSerialGC -XX:TieredStopAtLevel=1 -Xss512k -XX:ReservedCodeCacheSize=24m -XX:MaxMetaspaceSize=80m -XX:MaxDirectMemorySize=8m -XX:MinRAMPercentage=25.0 -XX:MaxRAMPercentage=25.0"
+OVER_LIMIT=0
+
+if [ -z "${JAR}" ] || [ ! -f "${JAR}" ]; then
+    echo "Application jar not found, building it..."
+    ./mvnw -q -B package -DskipTests
+    JAR="$(ls target/*.jar | grep -v plain | head -n 1)"
+fi
+
+rss_kb() {
+    awk '/^VmRSS:/ { print $2 }' "/proc/$1/status" 2>/dev/null || echo 0
+}
+
+peak_rss_kb() {
+    awk '/^VmHWM:/ { print $2 }' "/proc/$1/status" 2>/dev/null || echo 0
+}
+
+now_ms() {
+    date +%s%3N
+}
+
+# Prints "p50_ms p99_ms requests"
+load_endpoint() {
+    local url="$1"
+    if command -v hey > /dev/null 2>&1; then
+        hey -z "${DURATION}s" -c "${CONCURRENCY}" "${url}" | awk '
+            /Requests\/sec/ { rps = $2 }
+            /50% in/ { p50 = $3 * 1000 }
+            /99% in/ { p99 = $3 * 1000 }
+            END { printf "%.2f %.2f %d\n", p50, p99, rps * '"${DURATION}"' }'
+    else
+        local samples end worker
+        samples="$(mktemp)"
+        end=$(( $(date +%s) + DURATION ))
+        for worker in $(seq "${CONCURRENCY}"); do
+            ( while [ "$(date +%s)" -lt "${end}" ]; do
+                  curl -s -o /dev/null -w '%{time_total}\n' "${url}" >> "${samples}"
+              done ) &
+        done
+        wait
+        sort -n "${samples}" | awk '
+            { v[NR] = $1 * 1000 }
+            END {
+                p50 = v[int((NR * 50 + 99) / 100)]; p99 = v[int((NR * 99 + 99) / 100)]
+                printf "%.2f %.2f %d\n", p50, p99, NR
+            }'
+        rm -f "${samples}"
+    fi
+}
+
+run_profile() {
+    local name="$1" opts="$2" include="$3" limit_mb="$4"
+    local log="target/runtime-profile-${name}.log"
+
+    echo "Starting application with the '${name}' runtime profile..."
+    local started
+    started="$(now_ms)"
+    JAVA_TOOL_OPTIONS="${opts}" java -jar "${JAR}" --server.port="${PORT}" \
+        ${include:+--spring.profiles.include=${include}} > "${log}" 2>&1 &
+    local pid=$!
+
+    until curl -sf "http://localhost:${PORT}/ping" > /dev/null 2>&1; do
+        if ! kill -0 "${pid}" 2> /dev/null; then
+            echo "Application exited during startup, see ${log}"
+            exit 1
+        fi
+        sleep 0.1
+    done
+    local startup_ms=$(( $(now_ms) - started ))
+    sleep 2
+    local idle_rss
+    idle_rss="$(rss_kb "${pid}")"
+
+    {
+        echo ""
+        echo "### ${name}"
+        echo ""
+        echo "JVM options: \`${opts}\`"
+        echo ""
+        echo "Startup to first /ping: ${startup_ms} ms, idle RSS: $(( idle_rss / 1024 )) MiB"
+        echo ""
+        echo "| Endpoint | Requests | p50 (ms) | p99 (ms) | Peak RSS so far (MiB) |"
+        echo "|----------|----------|----------|----------|-----------------------|"
+    } >> "${REPORT}"
+
+    for endpoint in "${ENDPOINTS[@]}"; do
+        echo "  Loading ${endpoint} for ${DURATION}s..."
+        read -r p50 p99 requests < <(load_endpoint "http://localhost:${PORT}${endpoint}")
+        echo "| \`${endpoint}\` | ${requests} | ${p50} | ${p99} | $(( $(peak_rss_kb "${pid}") / 1024 )) |" >> "${REPORT}"
+    done
+
+    local peak_mb=$(( $(peak_rss_kb "${pid}") / 1024 ))
+    {
+        echo ""
+        if [ "${peak_mb}" -lt "${limit_mb}" ]; then
+            echo "Peak RSS ${peak_mb} MiB is within the ${limit_mb} MiB pod limit."
+        else
+            echo "**Peak RSS ${peak_mb} MiB exceeds the ${limit_mb} MiB pod limit; the pod would be OOMKilled.**"
+        fi
+    } >> "${REPORT}"
+    [ "${peak_mb}" -lt "${limit_mb}" ] || OVER_LIMIT=1
+
+    kill "${pid}"
+    wait "${pid}" 2> /dev/null || true
+}
+
+mkdir -p target
+{
+    echo "# Runtime Profile Report"
+    echo ""
+    echo "Jar: \`${JAR}\`, ${DURATION}s per endpoint at concurrency ${CONCURRENCY}, $(date -u +%Y-%m-%dT%H:%M:%SZ)"
+} > "${REPORT}"
+
+run_profile "default" "${DEFAULT_OPTS}" "" "${DEFAULT_LIMIT_MB}"
+run_profile "small" "${SMALL_OPTS}" "small" "${SMALL_LIMIT_MB}"
+
+echo ""
+cat "${REPORT}"
+exit "${OVER_LIMIT}"
@@ -0,0 +1,36 @@
+package com.learn.springboot;
+
+import com.learn.springboot.dto.ApiResponse;
+import com.learn.springboot.dto.FleetInfo;
+import com.learn.springboot.service.FleetAggregationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Tag(name = "Fleet API", description = "Aggregated view across all running instances")
+public class FleetController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FleetController.class);
+
+    @Autowired
+    private FleetAggregationService fleetAggregationService;
+
+    @GetMapping("/fleet/info")
+    @Operation(summary = "Fleet information", description = "Fans out to every peer's /info and /healthz and returns merged fleet-wide statistics")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Successfully aggregated fleet information")
+    })
+    public ResponseEntity<ApiResponse<FleetInfo>> fleetInfo() {
+        logger.info("Fleet info endpoint accessed");
+
+        FleetInfo fleetInfo = fleetAggregationService.aggregate();
+        return ResponseEntity.ok(ApiResponse.success(fleetInfo));
+    }
+}
@@ -1,10 +1,12 @@
 package com.learn.springboot;
 
 import com.learn.springboot.dto.HealthData;
+import com.learn.springboot.dto.InfoProjection;
 import com.learn.springboot.dto.SystemInfo;
 import com.learn.springboot.dto.WelcomeData;
 import com.learn.springboot.service.SystemInfoService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
@@ -92,12 +94,15 @@ public class HelloController {
     @GetMapping("/info")
     @Operation(summary = "Application information", description = "Returns detailed application and system information")
     @ApiResponses(value = {
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Successfully retrieved application information")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Successfully retrieved application information"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unknown path in fields")
     })
-    public ResponseEntity<com.learn.springboot.dto.ApiResponse<SystemInfo>> info() {
+    public ResponseEntity<com.learn.springboot.dto.ApiResponse<SystemInfo>> info(
+            @Parameter(description = "Comma-separated sections or section.field paths to include, e.g. system.memory,application.version")
+            @RequestParam(required = false) String fields) {
         logger.info("Info endpoint accessed");
 
-        SystemInfo systemInfo = systemInfoService.getSystemInfo();
+        SystemInfo systemInfo = systemInfoService.getSystemInfo(InfoProjection.parse(fields));
         com.learn.springboot.dto.ApiResponse<SystemInfo> response = com.learn.springboot.dto.ApiResponse.success(systemInfo);
 
         return ResponseEntity.ok(response);
@@ -0,0 +1,50 @@
+package com.learn.springboot;
+
+import com.learn.springboot.service.PrometheusScrapeCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Locale;
+
+@RestController
+@Tag(name = "Metrics API", description = "Cached Prometheus scrape endpoint")
+public class MetricsController {
+
+    @Autowired
+    private PrometheusScrapeCache prometheusScrapeCache;
+
+    @GetMapping("/metrics")
+    @Operation(summary = "Prometheus scrape", description = "Returns the Prometheus or OpenMetrics exposition, shared between scrapers for the cache window")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Metrics exposition"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Prometheus export is disabled")
+    })
+    public ResponseEntity<byte[]> scrape(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        PrometheusScrapeCache.Format format = accept != null && accept.contains("application/openmetrics-text")
+                ? PrometheusScrapeCache.Format.OPENMETRICS
+                : PrometheusScrapeCache.Format.TEXT;
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+
+        return prometheusScrapeCache.scrape(format, gzip)
+                .map(body -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                            .header(HttpHeaders.CONTENT_TYPE, body.contentType())
+                            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+                    if (body.gzipped()) {
+                        response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+                    }
+                    return response.body(body.content());
+                })
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
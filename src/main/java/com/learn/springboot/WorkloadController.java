@@ -0,0 +1,56 @@
+package com.learn.springboot;
+
+import com.learn.springboot.dto.ApiResponse;
+import com.learn.springboot.dto.WorkloadRequest;
+import com.learn.springboot.dto.WorkloadResult;
+import com.learn.springboot.service.WorkloadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@Profile("workload")
+@Tag(name = "Workload API", description = "Synthetic workloads for capacity planning (workload profile only)")
+public class WorkloadController {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkloadController.class);
+
+    @Autowired
+    private WorkloadService workloadService;
+
+    @GetMapping("/workload")
+    @Operation(summary = "Run a synthetic workload", description = "Burns CPU, allocates, retains, sleeps, contends on a shared lock and touches direct memory as requested, and reports the measured cost")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Workload completed"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "A parameter is out of range")
+    })
+    public ResponseEntity<ApiResponse<WorkloadResult>> run(@Valid @ModelAttribute WorkloadRequest request)
+            throws InterruptedException {
+        logger.debug("Workload endpoint accessed: {}", request);
+
+        return ResponseEntity.ok(ApiResponse.success(workloadService.run(request)));
+    }
+
+    @DeleteMapping("/workload/retained")
+    @Operation(summary = "Release retained memory", description = "Drops every allocation kept alive by retainKb")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Retained memory released")
+    })
+    public ResponseEntity<ApiResponse<Map<String, Long>>> releaseRetained() {
+        logger.info("Releasing retained workload memory");
+
+        return ResponseEntity.ok(ApiResponse.success(Map.of("releasedBytes", workloadService.releaseRetained())));
+    }
+}
@@ -0,0 +1,43 @@
+package com.learn.springboot.config;
+
+import com.learn.springboot.counter.CounterFile;
+import com.learn.springboot.service.PersistentCounterService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts every response in the persistent counter file, keyed by the matched route pattern so that
+ * path variables and unmatched URLs cannot exhaust the file's fixed set of slots
+ */
+public class RequestCountingFilter extends OncePerRequestFilter {
+
+    private final PersistentCounterService counters;
+
+    public RequestCountingFilter(PersistentCounterService counters) {
+        this.counters = counters;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !counters.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        try {
+            filterChain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            counters.record(pattern != null ? pattern.toString() : CounterFile.OTHER, status);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.learn.springboot.config;
+
+import com.learn.springboot.tracing.TailSamplingMetrics;
+import com.learn.springboot.tracing.TailSamplingSpanExporter;
+import io.opentelemetry.sdk.autoconfigure.spi.AutoConfigurationCustomizerProvider;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-process tail sampling for OpenTelemetry traces.
+ * <p>
+ * Every span is recorded, then {@link TailSamplingSpanExporter} wraps the configured span
+ * exporter and keeps only slow, errored or baseline traces.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.tracing.tail-sampling", name = "enabled", havingValue = "true")
+public class TailSamplingConfig {
+
+    private static final long ESTIMATED_SPAN_BYTES = 2048;
+    private static final int MIN_BUFFERED_SPANS = 1024;
+
+    @Value("${app.tracing.tail-sampling.default-threshold:500ms}")
+    private Duration defaultThreshold;
+
+    // Comma-separated route=duration pairs, e.g. "/healthz=50ms,/info=200ms"
+    @Value("${app.tracing.tail-sampling.thresholds:}")
+    private String thresholds;
+
+    @Value("${app.tracing.tail-sampling.baseline-ratio:0.01}")
+    private double baselineRatio;
+
+    @Value("${app.tracing.tail-sampling.max-traces:2048}")
+    private int maxTraces;
+
+    @Value("${app.tracing.tail-sampling.max-spans-per-trace:256}")
+    private int maxSpansPerTrace;
+
+    // 0 sizes the limit from the heap, see defaultMaxBufferedSpans
+    @Value("${app.tracing.tail-sampling.max-buffered-spans:0}")
+    private int maxBufferedSpans;
+
+    @Value("${app.tracing.tail-sampling.decision-wait:30s}")
+    private Duration decisionWait;
+
+    @Bean
+    public TailSamplingMetrics tailSamplingMetrics() {
+        return new TailSamplingMetrics();
+    }
+
+    @Bean
+    public AutoConfigurationCustomizerProvider tailSamplingCustomizer(TailSamplingMetrics tailSamplingMetrics) {
+        TailSamplingSpanExporter.Policy policy = new TailSamplingSpanExporter.Policy(
+                defaultThreshold,
+                parseThresholds(thresholds),
+                baselineRatio,
+                maxTraces,
+                maxSpansPerTrace,
+                maxBufferedSpans > 0 ? maxBufferedSpans : defaultMaxBufferedSpans(Runtime.getRuntime().maxMemory()),
+                decisionWait
+        );
+
+        return customizer -> customizer
+                // The decision is made after the fact, so every span has to be recorded
+                .addSamplerCustomizer((sampler, config) -> Sampler.parentBased(Sampler.alwaysOn()))
+                .addSpanExporterCustomizer((exporter, config) ->
+                        new TailSamplingSpanExporter(exporter, policy, tailSamplingMetrics));
+    }
+
+    /**
+     * Spans that fit in 5% of the heap at about 2 KiB retained per span (a server span with
+     * typical HTTP attributes), so the buffer scales with the pod's memory limit; a 128Mi heap
+     * (the JVM default of 25% of a 512Mi pod) buffers about 3,300 spans
+     */
+    static int defaultMaxBufferedSpans(long maxHeapBytes) {
+        return (int) Math.max(MIN_BUFFERED_SPANS, maxHeapBytes / 20 / ESTIMATED_SPAN_BYTES);
+    }
+
+    static Map<String, Duration> parseThresholds(String value) {
+        Map<String, Duration> routeThresholds = new LinkedHashMap<>();
+        if (value == null || value.isBlank()) {
+            return routeThresholds;
+        }
+        for (String entry : value.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid tail sampling threshold '" + entry
+                        + "', expected route=duration");
+            }
+            routeThresholds.put(entry.substring(0, separator).strip(),
+                    DurationStyle.detectAndParse(entry.substring(separator + 1).strip()));
+        }
+        return routeThresholds;
+    }
+}
@@ -0,0 +1,23 @@
+package com.learn.springboot.config;
+
+import com.learn.springboot.metrics.TomcatExecutorInstaller;
+import com.learn.springboot.metrics.TomcatSaturationMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.metrics.tomcat-saturation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TomcatSaturationConfig {
+
+    @Bean
+    public TomcatSaturationMetrics tomcatSaturationMetrics() {
+        return new TomcatSaturationMetrics();
+    }
+
+    @Bean
+    public TomcatConnectorCustomizer queueTimingConnectorCustomizer(TomcatSaturationMetrics tomcatSaturationMetrics) {
+        return connector -> connector.addLifecycleListener(new TomcatExecutorInstaller(tomcatSaturationMetrics));
+    }
+}
@@ -1,5 +1,6 @@
 package com.learn.springboot.config;
 
+import com.learn.springboot.service.PersistentCounterService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.filter.CommonsRequestLoggingFilter;
@@ -17,4 +18,9 @@ public class WebConfig {
         loggingFilter.setMaxPayloadLength(64000);
         return loggingFilter;
     }
+
+    @Bean
+    public RequestCountingFilter requestCountingFilter(PersistentCounterService counters) {
+        return new RequestCountingFilter(counters);
+    }
 }
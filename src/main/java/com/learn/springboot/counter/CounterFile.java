@@ -0,0 +1,276 @@
+package com.learn.springboot.counter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.learn.springboot.counter.CounterFileLayout.*;
+
+/**
+ * Writer side of the memory-mapped counter file described in {@link CounterFileLayout}.
+ * <p>
+ * Counts are cumulative across runs: on open the previous file is validated and kept, the restart
+ * count is incremented and the previous run's uptime is folded into the history. A header that
+ * fails its checksum loses only that history; slots whose names still verify keep their counts.
+ * A file with another magic or layout version is saved aside and the file is reinitialized.
+ * An exclusive file lock prevents two application instances from writing the same file; the file is
+ * only inspected or reset once that lock is held.
+ */
+public final class CounterFile implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CounterFile.class);
+
+    /** Slot that absorbs endpoints once every other slot is taken */
+    public static final String OTHER = "other";
+
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final long runStartedMillis;
+    private final long restarts;
+    private final long previousUptimeMillis;
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private int usedSlots;
+
+    private CounterFile(FileChannel channel, FileLock lock, MappedByteBuffer buffer, int capacity,
+                        long restarts, long previousUptimeMillis) {
+        this.channel = channel;
+        this.lock = lock;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.restarts = restarts;
+        this.previousUptimeMillis = previousUptimeMillis;
+        this.runStartedMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Open (or create) the counter file and start a new run in it
+     *
+     * @param slotCapacity number of endpoint slots for a newly created file; an existing valid
+     *                     file keeps its own capacity
+     * @throws IOException if the file cannot be opened or another writer holds its lock
+     */
+    public static CounterFile open(Path path, int slotCapacity) throws IOException {
+        return tryOpen(path, slotCapacity)
+                .orElseThrow(() -> new IOException("Counter file " + path + " is in use by another writer"));
+    }
+
+    /**
+     * Like {@link #open(Path, int)}, but returns empty while another writer holds the file's lock,
+     * for example the previous pod during a rolling update
+     */
+    public static Optional<CounterFile> tryOpen(Path path, int slotCapacity) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            FileLock lock = tryLock(channel);
+            if (lock == null) {
+                channel.close();
+                return Optional.empty();
+            }
+
+            // Inspect and reset the file only while holding the lock, so a writer that is still
+            // initializing it is never mistaken for a corrupt file
+            boolean existing = resetIfIncompatible(path, channel);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if (existing) {
+                channel.read(header, 0);
+            }
+            int capacity = existing ? header.getInt(SLOT_CAPACITY_OFFSET) : slotCapacity;
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacity));
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            long restarts = 0;
+            long previousUptime = 0;
+            if (existing && buffer.getLong(CHECKSUM_OFFSET) == headerChecksum(buffer)) {
+                restarts = buffer.getLong(RESTARTS_OFFSET) + 1;
+                previousUptime = buffer.getLong(PREVIOUS_UPTIME_OFFSET)
+                        + (long) LONG.getAcquire(buffer, RUN_UPTIME_OFFSET);
+            } else if (existing) {
+                logger.warn("Counter file {} has a corrupt header; restart and uptime history is reset", path);
+            }
+
+            CounterFile file = new CounterFile(channel, lock, buffer, capacity, restarts, previousUptime);
+            file.startRun(existing);
+            return Optional.of(file);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Count one response for an endpoint; status classes outside 1xx-5xx are counted as 5xx
+     */
+    public void increment(String endpoint, int status) {
+        int statusClassIndex = Math.min(Math.max(status / 100, 1), STATUS_CLASSES) - 1;
+        LONG.getAndAdd(buffer, countOffset(slot(endpoint), statusClassIndex), 1L);
+    }
+
+    /**
+     * Publish the current run's uptime so that it survives a crash
+     */
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        LONG.setRelease(buffer, RUN_UPTIME_OFFSET, now - runStartedMillis);
+        LONG.setRelease(buffer, HEARTBEAT_OFFSET, now);
+    }
+
+    public long restarts() {
+        return restarts;
+    }
+
+    /**
+     * Uptime accumulated by all earlier runs, as recorded by their last heartbeat
+     */
+    public long previousUptimeMillis() {
+        return previousUptimeMillis;
+    }
+
+    public CounterSnapshot snapshot() {
+        return CounterFileReader.read(buffer);
+    }
+
+    @Override
+    public void close() throws IOException {
+        heartbeat();
+        buffer.force();
+        lock.release();
+        channel.close();
+    }
+
+    private void startRun(boolean existing) {
+        // Recover slots from an existing file: they were allocated in order, so stop at the
+        // first one that was never completely written
+        if (existing) {
+            int used = Math.min(capacity, (int) INT.getAcquire(buffer, USED_SLOTS_OFFSET));
+            for (int slot = 0; slot < used; slot++) {
+                String name = readName(buffer, slot);
+                if (name == null) {
+                    break;
+                }
+                slots.put(name, slot);
+                usedSlots = slot + 1;
+            }
+            // Zero anything past the last good slot so stale bytes cannot be republished
+            for (int offset = slotOffset(usedSlots); offset < fileSize(capacity); offset++) {
+                buffer.put(offset, (byte) 0);
+            }
+        }
+
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(VERSION_OFFSET, VERSION);
+        buffer.putInt(HEADER_SIZE_OFFSET, HEADER_SIZE);
+        buffer.putInt(SLOT_SIZE_OFFSET, SLOT_SIZE);
+        buffer.putInt(SLOT_CAPACITY_OFFSET, capacity);
+        buffer.putLong(RESTARTS_OFFSET, restarts);
+        buffer.putLong(PREVIOUS_UPTIME_OFFSET, previousUptimeMillis);
+        buffer.putLong(RUN_STARTED_OFFSET, runStartedMillis);
+        buffer.putLong(CHECKSUM_OFFSET, headerChecksum(buffer));
+        INT.setRelease(buffer, USED_SLOTS_OFFSET, usedSlots);
+        heartbeat();
+        buffer.force();
+
+        slot(OTHER);
+    }
+
+    private int slot(String endpoint) {
+        // Route patterns are short ASCII, so the lookup normally needs no re-encoding
+        String name = endpoint.length() <= NAME_BYTES ? endpoint : decodeName(encodeName(endpoint));
+        Integer slot = slots.get(name);
+        return slot != null ? slot : allocate(name);
+    }
+
+    private synchronized int allocate(String name) {
+        Integer existing = slots.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        if (usedSlots == capacity) {
+            Integer other = slots.get(OTHER);
+            return other != null ? other : capacity - 1;
+        }
+
+        int slot = usedSlots;
+        byte[] encoded = encodeName(name);
+        buffer.put(slotOffset(slot), encoded);
+        INT.setRelease(buffer, slotOffset(slot) + NAME_CHECKSUM_OFFSET, nameChecksum(encoded));
+        // Publish the slot only after its name is in place
+        usedSlots = slot + 1;
+        INT.setRelease(buffer, USED_SLOTS_OFFSET, usedSlots);
+        slots.put(name, slot);
+        return slot;
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Held by another channel in this JVM
+            return null;
+        }
+    }
+
+    /**
+     * Check the locked file's header. A file with another magic or layout version is copied aside
+     * and zeroed in place (the inode is kept, so the lock and any reader mappings stay valid).
+     *
+     * @return whether the file holds a usable counter file of this layout
+     */
+    private static boolean resetIfIncompatible(Path path, FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return false;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(header, 0);
+
+        String reason = null;
+        if (header.position() < HEADER_SIZE || header.getInt(MAGIC_OFFSET) != MAGIC) {
+            reason = "corrupt";
+        } else if (header.getInt(VERSION_OFFSET) != VERSION) {
+            reason = "v" + header.getInt(VERSION_OFFSET);
+        } else if (header.getInt(HEADER_SIZE_OFFSET) != HEADER_SIZE
+                || header.getInt(SLOT_SIZE_OFFSET) != SLOT_SIZE
+                || header.getInt(SLOT_CAPACITY_OFFSET) <= 0
+                || size < fileSize(header.getInt(SLOT_CAPACITY_OFFSET))) {
+            reason = "corrupt";
+        }
+        if (reason == null) {
+            return true;
+        }
+
+        Path aside = path.resolveSibling(path.getFileName() + "." + reason + "-" + System.currentTimeMillis());
+        logger.warn("Counter file {} is not a usable v{} layout; saving it as {} and starting fresh", path, VERSION, aside);
+        Files.copy(path, aside, StandardCopyOption.REPLACE_EXISTING);
+
+        ByteBuffer zeros = ByteBuffer.allocate(8192);
+        for (long position = 0; position < size; position += zeros.capacity()) {
+            zeros.clear().limit((int) Math.min(zeros.capacity(), size - position));
+            channel.write(zeros, position);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,120 @@
+package com.learn.springboot.counter;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Binary layout of the persistent counter file, shared by the writer and the reader.
+ * <p>
+ * All values are little-endian. The file is a 128-byte header followed by fixed 64-byte slots:
+ * <pre>
+ * header  0  int   magic "LJCT"
+ *         4  int   layout version
+ *         8  int   header size
+ *        12  int   slot size
+ *        16  int   slot capacity
+ *        24  long  restarts                 (written once per run)
+ *        32  long  uptime of earlier runs ms (written once per run)
+ *        40  long  run start epoch ms       (written once per run)
+ *        48  long  CRC32 of bytes 0..47
+ *        56  int   used slots               (release/acquire)
+ *        64  long  current run uptime ms    (release/acquire)
+ *        72  long  last heartbeat epoch ms  (release/acquire)
+ * slot    0  20 bytes endpoint, ASCII, zero padded
+ *        20  int   CRC32 of the 20 name bytes
+ *        24  long  1xx, 2xx, 3xx, 4xx, 5xx response counts (atomic adds)
+ * </pre>
+ * A slot's name is written before the used-slot count is published with release semantics, so a
+ * reader that loads the count with acquire semantics only sees fully written names. Counters are
+ * aligned 8-byte values updated atomically, so readers never see torn values.
+ */
+final class CounterFileLayout {
+
+    static final int MAGIC = 0x54434A4C; // "LJCT" in little-endian byte order
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 128;
+    static final int SLOT_SIZE = 64;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int HEADER_SIZE_OFFSET = 8;
+    static final int SLOT_SIZE_OFFSET = 12;
+    static final int SLOT_CAPACITY_OFFSET = 16;
+    static final int RESTARTS_OFFSET = 24;
+    static final int PREVIOUS_UPTIME_OFFSET = 32;
+    static final int RUN_STARTED_OFFSET = 40;
+    static final int CHECKSUM_OFFSET = 48;
+    static final int USED_SLOTS_OFFSET = 56;
+    static final int RUN_UPTIME_OFFSET = 64;
+    static final int HEARTBEAT_OFFSET = 72;
+
+    static final int NAME_BYTES = 20;
+    static final int NAME_CHECKSUM_OFFSET = 20;
+    static final int COUNTS_OFFSET = 24;
+    static final int STATUS_CLASSES = 5;
+
+    static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private CounterFileLayout() {
+    }
+
+    static long fileSize(int slotCapacity) {
+        return HEADER_SIZE + (long) slotCapacity * SLOT_SIZE;
+    }
+
+    static int slotOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    static int countOffset(int slot, int statusClassIndex) {
+        return slotOffset(slot) + COUNTS_OFFSET + statusClassIndex * Long.BYTES;
+    }
+
+    static long headerChecksum(ByteBuffer buffer) {
+        byte[] bytes = new byte[CHECKSUM_OFFSET];
+        buffer.get(0, bytes);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    static int nameChecksum(byte[] name) {
+        CRC32 crc = new CRC32();
+        crc.update(name);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Encode an endpoint as exactly {@link #NAME_BYTES} ASCII bytes, truncating longer names
+     */
+    static byte[] encodeName(String endpoint) {
+        byte[] name = new byte[NAME_BYTES];
+        byte[] ascii = endpoint.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(ascii, 0, name, 0, Math.min(ascii.length, NAME_BYTES));
+        return name;
+    }
+
+    static String decodeName(byte[] name) {
+        int length = 0;
+        while (length < name.length && name[length] != 0) {
+            length++;
+        }
+        return new String(name, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Read the name of a slot, or null if its checksum does not match (never fully written)
+     */
+    static String readName(ByteBuffer buffer, int slot) {
+        byte[] name = new byte[NAME_BYTES];
+        buffer.get(slotOffset(slot), name);
+        int checksum = (int) INT.getAcquire(buffer, slotOffset(slot) + NAME_CHECKSUM_OFFSET);
+        return checksum == nameChecksum(name) && name[0] != 0 ? decodeName(name) : null;
+    }
+}
@@ -0,0 +1,119 @@
+package com.learn.springboot.counter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static com.learn.springboot.counter.CounterFileLayout.*;
+
+/**
+ * Lock-free reader for the persistent counter file, usable from another process such as a
+ * sidecar. The file is mapped once; every subsequent read is a plain memory load.
+ * <p>
+ * Run without Spring on the exploded application classes, for example:
+ * <pre>
+ * java -cp /app/BOOT-INF/classes com.learn.springboot.counter.CounterFileReader /data/counters.bin --watch 10
+ * </pre>
+ * Output is one {@code key value} line per counter, suitable for log shipping.
+ */
+public final class CounterFileReader {
+
+    private CounterFileReader() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: CounterFileReader <counter-file> [--watch <seconds>]");
+            System.exit(2);
+        }
+        long watchSeconds = args.length >= 3 && "--watch".equals(args[1]) ? Long.parseLong(args[2]) : 0;
+
+        try (FileChannel channel = FileChannel.open(Path.of(args[0]), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            do {
+                print(read(buffer));
+                if (watchSeconds > 0) {
+                    Thread.sleep(watchSeconds * 1000);
+                }
+            } while (watchSeconds > 0);
+        }
+    }
+
+    /**
+     * Take a snapshot of a mapped counter file
+     *
+     * @throws IllegalArgumentException if the buffer does not hold a counter file of a known layout
+     */
+    public static CounterSnapshot read(ByteBuffer mapped) {
+        ByteBuffer buffer = mapped.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+            throw new IllegalArgumentException("Not a counter file");
+        }
+        int version = buffer.getInt(VERSION_OFFSET);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported counter file layout version " + version);
+        }
+
+        int capacity = buffer.getInt(SLOT_CAPACITY_OFFSET);
+        if (buffer.getInt(SLOT_SIZE_OFFSET) != SLOT_SIZE || buffer.capacity() < fileSize(capacity)) {
+            throw new IllegalArgumentException("Counter file is truncated or has an unknown slot size");
+        }
+        boolean headerValid = buffer.getLong(CHECKSUM_OFFSET) == headerChecksum(buffer);
+
+        int usedSlots = Math.min(capacity, (int) INT.getAcquire(buffer, USED_SLOTS_OFFSET));
+        List<CounterSnapshot.EndpointCounts> endpoints = new ArrayList<>(usedSlots);
+        for (int slot = 0; slot < usedSlots; slot++) {
+            String name = readName(buffer, slot);
+            if (name != null) {
+                endpoints.add(new CounterSnapshot.EndpointCounts(
+                        name,
+                        count(buffer, slot, 0),
+                        count(buffer, slot, 1),
+                        count(buffer, slot, 2),
+                        count(buffer, slot, 3),
+                        count(buffer, slot, 4)
+                ));
+            }
+        }
+
+        return new CounterSnapshot(
+                version,
+                headerValid,
+                buffer.getLong(RESTARTS_OFFSET),
+                buffer.getLong(PREVIOUS_UPTIME_OFFSET),
+                (long) LONG.getAcquire(buffer, RUN_UPTIME_OFFSET),
+                (long) LONG.getAcquire(buffer, HEARTBEAT_OFFSET),
+                endpoints
+        );
+    }
+
+    private static long count(ByteBuffer buffer, int slot, int statusClassIndex) {
+        return (long) LONG.getAcquire(buffer, countOffset(slot, statusClassIndex));
+    }
+
+    private static void print(CounterSnapshot snapshot) {
+        StringBuilder out = new StringBuilder();
+        out.append("header_valid ").append(snapshot.headerValid()).append('\n')
+                .append("restarts ").append(snapshot.restarts()).append('\n')
+                .append("uptime_total_ms ").append(snapshot.totalUptimeMillis()).append('\n')
+                .append("heartbeat_epoch_ms ").append(snapshot.heartbeatEpochMillis()).append('\n');
+        String[] classes = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+        for (CounterSnapshot.EndpointCounts counts : snapshot.endpoints()) {
+            long[] values = {counts.informational(), counts.success(), counts.redirection(),
+                    counts.clientError(), counts.serverError()};
+            for (int i = 0; i < classes.length; i++) {
+                out.append(String.format(Locale.ROOT, "requests{endpoint=\"%s\",status=\"%s\"} %d%n",
+                        counts.endpoint(), classes[i], values[i]));
+            }
+        }
+        System.out.print(out);
+        System.out.flush();
+    }
+}
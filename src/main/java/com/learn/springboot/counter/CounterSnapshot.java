@@ -0,0 +1,56 @@
+package com.learn.springboot.counter;
+
+import java.util.List;
+
+/**
+ * Point-in-time copy of the persistent counter file
+ */
+public record CounterSnapshot(
+        int version,
+        boolean headerValid,
+        long restarts,
+        long previousUptimeMillis,
+        long runUptimeMillis,
+        long heartbeatEpochMillis,
+        List<EndpointCounts> endpoints
+) {
+
+    public CounterSnapshot {
+        endpoints = endpoints != null ? List.copyOf(endpoints) : List.of();
+    }
+
+    @Override
+    public List<EndpointCounts> endpoints() {
+        return List.copyOf(endpoints);
+    }
+
+    public long totalUptimeMillis() {
+        return previousUptimeMillis + runUptimeMillis;
+    }
+
+    public long totalRequests() {
+        return endpoints.stream().mapToLong(EndpointCounts::total).sum();
+    }
+
+    public long clientErrors() {
+        return endpoints.stream().mapToLong(EndpointCounts::clientError).sum();
+    }
+
+    public long serverErrors() {
+        return endpoints.stream().mapToLong(EndpointCounts::serverError).sum();
+    }
+
+    public record EndpointCounts(
+            String endpoint,
+            long informational,
+            long success,
+            long redirection,
+            long clientError,
+            long serverError
+    ) {
+
+        public long total() {
+            return informational + success + redirection + clientError + serverError;
+        }
+    }
+}
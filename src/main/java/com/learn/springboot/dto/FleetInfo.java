@@ -0,0 +1,62 @@
+package com.learn.springboot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fleet-wide view merged from the /info and /healthz responses of every peer
+ */
+public record FleetInfo(
+        Integer peers,
+        Integer reachable,
+        Map<String, Long> versions,
+        Map<String, Stats> stats,
+        List<InstanceInfo> instances
+) {
+
+    public FleetInfo {
+        // Defensive copies to prevent external mutation
+        versions = versions != null ? Map.copyOf(versions) : Map.of();
+        stats = stats != null ? Map.copyOf(stats) : Map.of();
+        instances = instances != null ? List.copyOf(instances) : List.of();
+    }
+
+    @Override
+    public Map<String, Long> versions() {
+        return Map.copyOf(versions);
+    }
+
+    @Override
+    public Map<String, Stats> stats() {
+        return Map.copyOf(stats);
+    }
+
+    @Override
+    public List<InstanceInfo> instances() {
+        return List.copyOf(instances);
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record InstanceInfo(
+            String url,
+            String status,
+            String version,
+            Double uptime,
+            Long heapUsed,
+            Long heapTotal,
+            Long latencyMs,
+            Boolean hedged,
+            String error
+    ) {}
+
+    public record Stats(
+            Integer count,
+            Double min,
+            Double max,
+            Double p50,
+            Double p90,
+            Double p99
+    ) {}
+}
@@ -0,0 +1,144 @@
+package com.learn.springboot.dto;
+
+import com.learn.springboot.exception.InvalidFieldsException;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Selection of {@link SystemInfo} paths requested through {@code /info?fields=...}.
+ * <p>
+ * Paths are comma separated and either name a whole section ({@code system}) or one field of a
+ * section ({@code system.memory}); memory and CPU are selected as a whole. An absent or blank
+ * projection selects everything. {@link Field} is the single list of selectable paths: the parser
+ * accepts exactly its entries and {@code SystemInfoService} builds each field under its constant.
+ */
+public final class InfoProjection {
+
+    public enum Section {
+        APPLICATION("application"),
+        SYSTEM("system"),
+        ENVIRONMENT("environment"),
+        HISTORY("history");
+
+        private final String path;
+
+        Section(String path) {
+            this.path = path;
+        }
+
+        public String path() {
+            return path;
+        }
+    }
+
+    public enum Field {
+        APPLICATION_NAME(Section.APPLICATION, "name"),
+        APPLICATION_VERSION(Section.APPLICATION, "version"),
+        APPLICATION_ENVIRONMENT(Section.APPLICATION, "environment"),
+        APPLICATION_TIMESTAMP(Section.APPLICATION, "timestamp"),
+        SYSTEM_PLATFORM(Section.SYSTEM, "platform"),
+        SYSTEM_ARCH(Section.SYSTEM, "arch"),
+        SYSTEM_JAVA_VERSION(Section.SYSTEM, "javaVersion"),
+        SYSTEM_UPTIME(Section.SYSTEM, "uptime"),
+        SYSTEM_MEMORY(Section.SYSTEM, "memory"),
+        SYSTEM_CPU(Section.SYSTEM, "cpu"),
+        ENVIRONMENT_NODE_ENV(Section.ENVIRONMENT, "nodeEnv"),
+        ENVIRONMENT_PORT(Section.ENVIRONMENT, "port"),
+        ENVIRONMENT_HOST(Section.ENVIRONMENT, "host"),
+        HISTORY_RESTARTS(Section.HISTORY, "restarts"),
+        HISTORY_TOTAL_UPTIME(Section.HISTORY, "totalUptime"),
+        HISTORY_TOTAL_REQUESTS(Section.HISTORY, "totalRequests"),
+        HISTORY_CLIENT_ERRORS(Section.HISTORY, "clientErrors"),
+        HISTORY_SERVER_ERRORS(Section.HISTORY, "serverErrors");
+
+        private final Section section;
+        private final String path;
+
+        Field(Section section, String name) {
+            this.section = section;
+            this.path = section.path() + "." + name;
+        }
+
+        public Section section() {
+            return section;
+        }
+
+        public String path() {
+            return path;
+        }
+    }
+
+    // Every accepted path, sections first, mapped to the fields it selects
+    private static final Map<String, Set<Field>> PATHS = new LinkedHashMap<>();
+
+    static {
+        for (Section section : Section.values()) {
+            PATHS.put(section.path(), EnumSet.noneOf(Field.class));
+        }
+        for (Field field : Field.values()) {
+            PATHS.get(field.section().path()).add(field);
+            PATHS.put(field.path(), EnumSet.of(field));
+        }
+    }
+
+    public static final InfoProjection ALL = new InfoProjection(EnumSet.allOf(Field.class));
+
+    private final Set<Field> fields;
+    private final Set<Section> sections = EnumSet.noneOf(Section.class);
+
+    private InfoProjection(Set<Field> fields) {
+        this.fields = fields;
+        fields.forEach(field -> sections.add(field.section()));
+    }
+
+    /**
+     * Parse a {@code fields} parameter
+     *
+     * @throws InvalidFieldsException if any path is not part of {@link SystemInfo}
+     */
+    public static InfoProjection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        Set<Field> selected = EnumSet.noneOf(Field.class);
+        List<String> unknown = new ArrayList<>();
+        for (String raw : fields.split(",")) {
+            String path = raw.trim();
+            if (path.isEmpty()) {
+                continue;
+            }
+            Set<Field> matched = PATHS.get(path);
+            if (matched != null) {
+                selected.addAll(matched);
+            } else {
+                unknown.add(path);
+            }
+        }
+
+        if (!unknown.isEmpty()) {
+            throw new InvalidFieldsException(unknown, validPaths());
+        }
+        return selected.isEmpty() ? ALL : new InfoProjection(selected);
+    }
+
+    /**
+     * Every path accepted by {@link #parse(String)}, sections first
+     */
+    public static List<String> validPaths() {
+        return List.copyOf(PATHS.keySet());
+    }
+
+    public boolean includes(Section section) {
+        return sections.contains(section);
+    }
+
+    public boolean includes(Field field) {
+        return fields.contains(field);
+    }
+}
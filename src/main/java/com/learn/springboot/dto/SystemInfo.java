@@ -1,14 +1,21 @@
 package com.learn.springboot.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
- * System information response DTO matching Node.js structure
+ * System information response DTO matching Node.js structure.
+ * {@code history} is only present when persistent counters are enabled. Parts left out by an
+ * {@link InfoProjection} are null and omitted from the JSON.
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record SystemInfo(
         ApplicationInfo application,
         SystemDetails system,
-        EnvironmentInfo environment
+        EnvironmentInfo environment,
+        HistoryInfo history
 ) {
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public record ApplicationInfo(
             String name,
             String version,
@@ -16,6 +23,7 @@ public record SystemInfo(
             String timestamp
     ) {}
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public record SystemDetails(
             String platform,
             String arch,
@@ -25,6 +33,7 @@ public record SystemInfo(
             CpuInfo cpu
     ) {}
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public record EnvironmentInfo(
             String nodeEnv,
             String port,
@@ -43,4 +52,16 @@ public record SystemInfo(
             Long user,
             Long system
     ) {}
+
+    /**
+     * Totals accumulated across restarts from the persistent counter file
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record HistoryInfo(
+            Long restarts,
+            Double totalUptime,
+            Long totalRequests,
+            Long clientErrors,
+            Long serverErrors
+    ) {}
 }
@@ -0,0 +1,58 @@
+package com.learn.springboot.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+/**
+ * Amount of each kind of synthetic work to perform for one request; omitted values mean none
+ */
+public record WorkloadRequest(
+        @Min(value = 0, message = "cpuMillis must be >= 0")
+        @Max(value = 2000, message = "cpuMillis must be <= 2000")
+        Integer cpuMillis,
+
+        @Min(value = 0, message = "allocateKb must be >= 0")
+        @Max(value = 65536, message = "allocateKb must be <= 65536")
+        Integer allocateKb,
+
+        @Min(value = 0, message = "retainKb must be >= 0")
+        @Max(value = 16384, message = "retainKb must be <= 16384")
+        Integer retainKb,
+
+        @Min(value = 0, message = "sleepMillis must be >= 0")
+        @Max(value = 10000, message = "sleepMillis must be <= 10000")
+        Integer sleepMillis,
+
+        @Min(value = 0, message = "lockHoldMillis must be >= 0")
+        @Max(value = 1000, message = "lockHoldMillis must be <= 1000")
+        Integer lockHoldMillis,
+
+        @Min(value = 0, message = "directBufferKb must be >= 0")
+        @Max(value = 16384, message = "directBufferKb must be <= 16384")
+        Integer directBufferKb
+) {
+
+    public int cpuMillisOrZero() {
+        return cpuMillis != null ? cpuMillis : 0;
+    }
+
+    public int allocateKbOrZero() {
+        return allocateKb != null ? allocateKb : 0;
+    }
+
+    public int retainKbOrZero() {
+        return retainKb != null ? retainKb : 0;
+    }
+
+    public int sleepMillisOrZero() {
+        return sleepMillis != null ? sleepMillis : 0;
+    }
+
+    public int lockHoldMillisOrZero() {
+        return lockHoldMillis != null ? lockHoldMillis : 0;
+    }
+
+    public int directBufferKbOrZero() {
+        return directBufferKb != null ? directBufferKb : 0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.learn.springboot.dto;
+
+/**
+ * What a synthetic workload request asked for and what it actually cost
+ */
+public record WorkloadResult(
+        WorkloadRequest requested,
+        Cost cost
+) {
+
+    public record Cost(
+            Double wallMillis,
+            Double cpuMillis,
+            Long allocatedBytes,
+            Double sleptMillis,
+            Double lockWaitMillis,
+            Double lockHeldMillis,
+            Long directBufferBytes,
+            Long retainedBytesTotal,
+            Long retainedBytesLimit
+    ) {}
+}
@@ -45,6 +45,36 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errorResponse);
     }
 
+    @ExceptionHandler(InvalidFieldsException.class)
+    public ResponseEntity<ApiResponse<Map<String, Object>>> handleInvalidFields(
+            InvalidFieldsException ex, WebRequest request) {
+
+        logger.warn("Invalid fields requested: {}", ex.getMessage());
+
+        ApiResponse<Map<String, Object>> errorResponse = ApiResponse.error(
+                "Invalid fields",
+                HttpStatus.BAD_REQUEST.value(),
+                Map.of("unknown", ex.getUnknownFields(), "valid", ex.getValidFields())
+        );
+
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
+    @ExceptionHandler(WorkloadLimitException.class)
+    public ResponseEntity<ApiResponse<Map<String, String>>> handleWorkloadLimit(
+            WorkloadLimitException ex, WebRequest request) {
+
+        logger.warn("Workload exceeds JVM limits: {}", ex.getMessage());
+
+        ApiResponse<Map<String, String>> errorResponse = ApiResponse.error(
+                "Validation failed",
+                HttpStatus.BAD_REQUEST.value(),
+                Map.of(ex.getField(), ex.getMessage())
+        );
+
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Object>> handleGenericException(
             Exception ex, WebRequest request) {
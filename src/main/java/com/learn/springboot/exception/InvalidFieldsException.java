@@ -0,0 +1,26 @@
+package com.learn.springboot.exception;
+
+import java.util.List;
+
+/**
+ * Thrown when a {@code fields} projection names paths the response does not have
+ */
+public class InvalidFieldsException extends RuntimeException {
+
+    private final List<String> unknownFields;
+    private final List<String> validFields;
+
+    public InvalidFieldsException(List<String> unknownFields, List<String> validFields) {
+        super("Unknown fields: " + String.join(", ", unknownFields));
+        this.unknownFields = List.copyOf(unknownFields);
+        this.validFields = List.copyOf(validFields);
+    }
+
+    public List<String> getUnknownFields() {
+        return unknownFields;
+    }
+
+    public List<String> getValidFields() {
+        return validFields;
+    }
+}
@@ -0,0 +1,19 @@
+package com.learn.springboot.exception;
+
+/**
+ * Thrown when a workload parameter is within its declared range but exceeds what this JVM can
+ * actually provide, such as more direct memory than {@code -XX:MaxDirectMemorySize} allows
+ */
+public class WorkloadLimitException extends RuntimeException {
+
+    private final String field;
+
+    public WorkloadLimitException(String field, String message) {
+        super(message);
+        this.field = field;
+    }
+
+    public String getField() {
+        return field;
+    }
+}
@@ -0,0 +1,52 @@
+package com.learn.springboot.metrics;
+
+import org.apache.tomcat.util.threads.TaskQueue;
+import org.apache.tomcat.util.threads.TaskThreadFactory;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * Tomcat request executor, built the same way as the connector's internal one, that reports how
+ * long each task waited in the queue before a worker thread picked it up.
+ */
+public class QueueTimingExecutor extends ThreadPoolExecutor {
+
+    private final LongConsumer queueWaitNanos;
+
+    public QueueTimingExecutor(String namePrefix, int minSpareThreads, int maxThreads, int maxQueueSize,
+                               LongConsumer queueWaitNanos) {
+        this(new TaskQueue(maxQueueSize), namePrefix, minSpareThreads, maxThreads, queueWaitNanos);
+    }
+
+    private QueueTimingExecutor(TaskQueue queue, String namePrefix, int minSpareThreads, int maxThreads,
+                                LongConsumer queueWaitNanos) {
+        super(minSpareThreads, maxThreads, 60, TimeUnit.SECONDS, queue,
+                new TaskThreadFactory(namePrefix, true, Thread.NORM_PRIORITY));
+        this.queueWaitNanos = queueWaitNanos;
+        queue.setParent(this);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(new TimedTask(command, System.nanoTime()));
+    }
+
+    private final class TimedTask implements Runnable {
+
+        private final Runnable delegate;
+        private final long enqueuedNanos;
+
+        private TimedTask(Runnable delegate, long enqueuedNanos) {
+            this.delegate = delegate;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+
+        @Override
+        public void run() {
+            queueWaitNanos.accept(System.nanoTime() - enqueuedNanos);
+            delegate.run();
+        }
+    }
+}
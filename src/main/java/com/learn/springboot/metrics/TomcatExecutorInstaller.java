@@ -0,0 +1,65 @@
+package com.learn.springboot.metrics;
+
+import org.apache.catalina.Lifecycle;
+import org.apache.catalina.LifecycleEvent;
+import org.apache.catalina.LifecycleListener;
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Connector lifecycle listener that swaps in a {@link QueueTimingExecutor} right before the
+ * connector starts, once every thread-pool setting from {@code server.tomcat.threads.*} has been
+ * applied, and shuts it down when the connector stops.
+ * <p>
+ * Connectors that already have an executor (for example virtual threads) are left alone. Because
+ * Tomcat treats the pool as external, its own {@code tomcat.threads.config.max} reports -1;
+ * {@code tomcat.executor.threads.max} carries the real limit.
+ */
+public class TomcatExecutorInstaller implements LifecycleListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TomcatExecutorInstaller.class);
+
+    private final TomcatSaturationMetrics metrics;
+    private AbstractProtocol<?> protocol;
+    private QueueTimingExecutor executor;
+
+    public TomcatExecutorInstaller(TomcatSaturationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void lifecycleEvent(LifecycleEvent event) {
+        if (!(event.getLifecycle() instanceof Connector connector)) {
+            return;
+        }
+        if (Lifecycle.BEFORE_START_EVENT.equals(event.getType())) {
+            install(connector.getProtocolHandler());
+        } else if (Lifecycle.AFTER_STOP_EVENT.equals(event.getType()) && executor != null) {
+            // Hand the pool back to Tomcat so a restarted connector gets a fresh executor
+            protocol.setExecutor(null);
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    private void install(ProtocolHandler handler) {
+        if (!(handler instanceof AbstractProtocol<?> protocol) || protocol.getExecutor() != null) {
+            logger.info("Tomcat connector already uses a custom executor; queue wait time is not measured");
+            return;
+        }
+
+        executor = new QueueTimingExecutor(
+                protocol.getName().replace("\"", "") + "-exec-",
+                protocol.getMinSpareThreads(),
+                protocol.getMaxThreads(),
+                protocol.getMaxQueueSize(),
+                metrics::recordQueueWait
+        );
+        protocol.setExecutor(executor);
+        this.protocol = protocol;
+        metrics.attach(protocol, executor);
+    }
+}
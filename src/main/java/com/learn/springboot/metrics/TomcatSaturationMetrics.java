@@ -0,0 +1,118 @@
+package com.learn.springboot.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.coyote.AbstractProtocol;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saturation view of the Tomcat HTTP connector: worker threads, executor queue, time spent
+ * queued, connections, and a single derived saturation ratio suitable for autoscaling.
+ * <p>
+ * The saturation ratio is the larger of thread utilization and connection utilization, plus the
+ * queue depth relative to the thread pool. It reaches 1.0 when every worker is busy and exceeds
+ * 1.0 once requests start queueing for a worker.
+ */
+public class TomcatSaturationMetrics implements MeterBinder {
+
+    private volatile AbstractProtocol<?> protocol;
+    private volatile QueueTimingExecutor executor;
+    private volatile Timer queueWait;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        queueWait = Timer.builder("tomcat.executor.queue.wait")
+                .description("Time a request waited in the executor queue before a worker started it")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        Gauge.builder("tomcat.executor.threads.busy", this, TomcatSaturationMetrics::busyThreads)
+                .description("Worker threads currently processing a request")
+                .register(registry);
+        Gauge.builder("tomcat.executor.threads.max", this, TomcatSaturationMetrics::maxThreads)
+                .description("Maximum number of worker threads")
+                .register(registry);
+        Gauge.builder("tomcat.executor.queue.size", this, TomcatSaturationMetrics::queueSize)
+                .description("Requests accepted but waiting for a worker thread")
+                .register(registry);
+        Gauge.builder("tomcat.connections.active", this, TomcatSaturationMetrics::connections)
+                .description("Open connections held by the connector")
+                .register(registry);
+        Gauge.builder("tomcat.connections.max", this, TomcatSaturationMetrics::maxConnections)
+                .description("Connections the connector accepts before leaving new ones in the accept backlog")
+                .register(registry);
+        Gauge.builder("tomcat.connections.keepalive", this, TomcatSaturationMetrics::keepAliveConnections)
+                .description("Open connections idle between requests (keep-alive)")
+                .register(registry);
+        Gauge.builder("tomcat.connections.accept.backlog", this, TomcatSaturationMetrics::acceptBacklog)
+                .description("Configured OS accept backlog (acceptCount) used once max connections is reached")
+                .register(registry);
+        Gauge.builder("tomcat.saturation", this, TomcatSaturationMetrics::saturation)
+                .description("max(thread utilization, connection utilization) + queued requests per worker thread")
+                .register(registry);
+    }
+
+    void attach(AbstractProtocol<?> protocol, QueueTimingExecutor executor) {
+        this.protocol = protocol;
+        this.executor = executor;
+    }
+
+    void recordQueueWait(long nanos) {
+        Timer timer = queueWait;
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public double busyThreads() {
+        QueueTimingExecutor current = executor;
+        return current != null ? current.getActiveCount() : Double.NaN;
+    }
+
+    public double maxThreads() {
+        QueueTimingExecutor current = executor;
+        return current != null ? current.getMaximumPoolSize() : Double.NaN;
+    }
+
+    public double queueSize() {
+        QueueTimingExecutor current = executor;
+        return current != null ? current.getQueue().size() : Double.NaN;
+    }
+
+    public double connections() {
+        AbstractProtocol<?> current = protocol;
+        return current != null ? current.getConnectionCount() : Double.NaN;
+    }
+
+    public double maxConnections() {
+        AbstractProtocol<?> current = protocol;
+        return current != null ? current.getMaxConnections() : Double.NaN;
+    }
+
+    public double acceptBacklog() {
+        AbstractProtocol<?> current = protocol;
+        return current != null ? current.getAcceptCount() : Double.NaN;
+    }
+
+    /**
+     * Connections that are open but neither being processed nor queued, i.e. waiting for the
+     * client's next request on a kept-alive connection
+     */
+    public double keepAliveConnections() {
+        return Math.max(0, connections() - busyThreads() - queueSize());
+    }
+
+    public double saturation() {
+        double maxThreads = maxThreads();
+        if (!(maxThreads > 0)) {
+            return Double.NaN;
+        }
+        double threadUtilization = busyThreads() / maxThreads;
+        double maxConnections = maxConnections();
+        double connectionUtilization = maxConnections > 0 ? connections() / maxConnections : 0;
+        return Math.max(threadUtilization, connectionUtilization) + queueSize() / maxThreads;
+    }
+}
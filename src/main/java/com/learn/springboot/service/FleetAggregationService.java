@@ -0,0 +1,399 @@
+package com.learn.springboot.service;
+
+import com.learn.springboot.dto.ApiResponse;
+import com.learn.springboot.dto.FleetInfo;
+import com.learn.springboot.dto.HealthData;
+import com.learn.springboot.dto.SystemInfo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Service that fans out to every peer instance and merges their /info and /healthz
+ * responses into a single fleet-wide view.
+ * <p>
+ * Peers come from a static list ({@code app.fleet.peers}) and/or from resolving a DNS name
+ * ({@code app.fleet.dns-name}), typically the headless Service of the Helm chart. Each call runs
+ * on a virtual thread, is bounded by a per-call timeout, is hedged with a second request when the
+ * first one is slower than {@code app.fleet.hedge-delay}, and holds one of
+ * {@code app.fleet.max-concurrency} permits while it is in flight.
+ */
+@Service
+public class FleetAggregationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FleetAggregationService.class);
+
+    // Only the parts of /info that are merged. Memory, which dominates the response, is among them,
+    // so peers save a few hundred bytes per call and return a smaller body to parse, no more
+    private static final String INFO_PATH = "/info?fields=application.version,system.uptime,system.memory";
+
+    // Allowance for scheduling the peer's virtual thread on top of its own deadline
+    private static final Duration AWAIT_HEADROOM = Duration.ofMillis(500);
+
+    private static final ParameterizedTypeReference<ApiResponse<SystemInfo>> INFO_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private static final ParameterizedTypeReference<ApiResponse<HealthData>> HEALTH_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    @Value("${app.fleet.peers:}")
+    private List<String> peers;
+
+    @Value("${app.fleet.dns-name:}")
+    private String dnsName;
+
+    @Value("${app.fleet.peer-port:${server.port:8080}}")
+    private int peerPort;
+
+    @Value("${app.fleet.timeout:2s}")
+    private Duration timeout;
+
+    @Value("${app.fleet.hedge-delay:300ms}")
+    private Duration hedgeDelay;
+
+    @Value("${app.fleet.max-concurrency:16}")
+    private int maxConcurrency;
+
+    private ExecutorService executor;
+    private Semaphore permits;
+    private RestClient restClient;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        permits = new Semaphore(Math.max(1, maxConcurrency));
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .executor(executor)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(timeout);
+
+        restClient = RestClient.builder()
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Resolve the configured peer list and DNS name into base URIs, without duplicates
+     */
+    public List<URI> discoverPeers() {
+        Set<URI> uris = new LinkedHashSet<>();
+
+        for (String peer : peers) {
+            if (!peer.isBlank()) {
+                uris.add(URI.create(peer.strip()));
+            }
+        }
+
+        if (dnsName != null && !dnsName.isBlank()) {
+            try {
+                for (InetAddress address : InetAddress.getAllByName(dnsName)) {
+                    uris.add(new URI("http", null, address.getHostAddress(), peerPort, null, null, null));
+                }
+            } catch (UnknownHostException | URISyntaxException e) {
+                logger.warn("Could not resolve fleet DNS name '{}': {}", dnsName, e.getMessage());
+            }
+        }
+
+        return List.copyOf(uris);
+    }
+
+    public FleetInfo aggregate() {
+        return aggregate(discoverPeers());
+    }
+
+    public FleetInfo aggregate(List<URI> peerUris) {
+        // Shared by every call: up to the timeout waiting for a permit, then up to the timeout for an answer
+        long deadline = System.nanoTime() + timeout.toNanos() * 2;
+        List<Future<FleetInfo.InstanceInfo>> futures = peerUris.stream()
+                .map(uri -> executor.submit(() -> inspect(uri, deadline)))
+                .toList();
+
+        List<FleetInfo.InstanceInfo> instances = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            instances.add(awaitInstance(peerUris.get(i), futures.get(i), deadline));
+        }
+
+        return merge(instances);
+    }
+
+    private FleetInfo.InstanceInfo awaitInstance(URI uri, Future<FleetInfo.InstanceInfo> future, long deadline) {
+        try {
+            // inspect() gives up by the deadline itself, so this only trips if its thread never got to run
+            long remaining = Math.max(0, deadline - System.nanoTime()) + AWAIT_HEADROOM.toNanos();
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return unreachable(uri, "interrupted");
+        } catch (ExecutionException e) {
+            return unreachable(uri, describe(e));
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return unreachable(uri, "No answer from " + uri + " within " + timeout.multipliedBy(2));
+        }
+    }
+
+    /**
+     * Fetch /info and /healthz from one peer. Cancelling the returned task cancels both calls.
+     */
+    private FleetInfo.InstanceInfo inspect(URI baseUri, long deadline) {
+        Future<Outcome<ApiResponse<SystemInfo>>> info = executor.submit(
+                () -> hedgedGet(baseUri.resolve(INFO_PATH), INFO_TYPE, deadline));
+        Future<Outcome<ApiResponse<HealthData>>> health = executor.submit(
+                () -> hedgedGet(baseUri.resolve("/healthz"), HEALTH_TYPE, deadline));
+
+        try {
+            Outcome<ApiResponse<SystemInfo>> infoOutcome = info.get();
+            Outcome<ApiResponse<HealthData>> healthOutcome = health.get();
+
+            SystemInfo systemInfo = infoOutcome.body().data();
+            HealthData healthData = healthOutcome.body().data();
+            SystemInfo.MemoryUsage memory = systemInfo.system().memory();
+
+            return new FleetInfo.InstanceInfo(
+                    baseUri.toString(),
+                    healthData.status(),
+                    systemInfo.application().version(),
+                    systemInfo.system().uptime(),
+                    memory.heapUsed(),
+                    memory.heapTotal(),
+                    Math.max(infoOutcome.latencyMs(), healthOutcome.latencyMs()),
+                    infoOutcome.hedged() || healthOutcome.hedged(),
+                    null
+            );
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return unreachable(baseUri, "interrupted");
+        } catch (ExecutionException | RuntimeException e) {
+            logger.debug("Fleet peer {} failed", baseUri, e);
+            return unreachable(baseUri, describe(e));
+        } finally {
+            info.cancel(true);
+            health.cancel(true);
+        }
+    }
+
+    /**
+     * Issue a GET and, if it has not answered within the hedge delay, race a second identical
+     * request against it and keep whichever succeeds first. The hedge delay and the timeout both
+     * count from when the first request holds its permit, neither the permit wait nor the call
+     * runs past {@code deadline}, and the request that loses the race (or every request, on
+     * timeout) is cancelled so that its permit is released straight away.
+     */
+    private <T> Outcome<T> hedgedGet(URI uri, ParameterizedTypeReference<T> type, long deadline) {
+        acquirePermit(uri, Math.min(timeout.toNanos(), deadline - System.nanoTime()));
+        long started = System.nanoTime();
+        long answerBy = Math.min(started + timeout.toNanos(), deadline);
+        Call<T> primary = new Call<>(() -> get(uri, type), true);
+        Call<T> hedge = null;
+
+        try {
+            try {
+                long hedgeAfter = Math.min(hedgeDelay.toNanos(), answerBy - System.nanoTime());
+                T body = primary.result.get(hedgeAfter, TimeUnit.NANOSECONDS);
+                return new Outcome<>(body, elapsedMillis(started), false);
+            } catch (TimeoutException e) {
+                long remaining = Math.max(1, answerBy - System.nanoTime());
+                hedge = new Call<>(() -> {
+                    acquirePermit(uri, remaining);
+                    return get(uri, type);
+                }, false);
+                T body = firstSuccessful(primary.result, hedge.result).get(remaining, TimeUnit.NANOSECONDS);
+                return new Outcome<>(body, elapsedMillis(started), true);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling " + uri, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Request to " + uri + " failed: " + describe(e), e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("No answer from " + uri + " within "
+                    + Duration.ofNanos(answerBy - started).truncatedTo(ChronoUnit.MILLIS), e);
+        } finally {
+            primary.cancel();
+            if (hedge != null) {
+                hedge.cancel();
+            }
+        }
+    }
+
+    private void acquirePermit(URI uri, long timeoutNanos) {
+        try {
+            if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new IllegalStateException("No fleet call permit for " + uri + " within " + timeout
+                        + " (app.fleet.max-concurrency=" + maxConcurrency + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a fleet call permit", e);
+        }
+    }
+
+    /**
+     * Perform a GET with an already acquired permit, releasing it when done
+     */
+    private <T> T get(URI uri, ParameterizedTypeReference<T> type) {
+        try {
+            return restClient.get().uri(uri).retrieve().body(type);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> first, CompletableFuture<T> second) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<T> candidate : List.of(first, second)) {
+            candidate.whenComplete((value, error) -> {
+                if (error == null) {
+                    result.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(error);
+                }
+            });
+        }
+        return result;
+    }
+
+    private FleetInfo merge(List<FleetInfo.InstanceInfo> instances) {
+        List<FleetInfo.InstanceInfo> reachable = instances.stream()
+                .filter(instance -> instance.error() == null)
+                .toList();
+
+        Map<String, Long> versions = new TreeMap<>();
+        for (FleetInfo.InstanceInfo instance : reachable) {
+            versions.merge(String.valueOf(instance.version()), 1L, Long::sum);
+        }
+
+        Map<String, FleetInfo.Stats> stats = new LinkedHashMap<>();
+        stats.put("heapUsed", stats(reachable, instance -> instance.heapUsed()));
+        stats.put("heapTotal", stats(reachable, instance -> instance.heapTotal()));
+        stats.put("uptime", stats(reachable, FleetInfo.InstanceInfo::uptime));
+        stats.put("latencyMs", stats(reachable, instance -> instance.latencyMs()));
+
+        return new FleetInfo(instances.size(), reachable.size(), versions, stats, instances);
+    }
+
+    private static FleetInfo.Stats stats(List<FleetInfo.InstanceInfo> instances,
+                                         ToDoubleFunction<FleetInfo.InstanceInfo> metric) {
+        double[] values = instances.stream().mapToDouble(metric).sorted().toArray();
+        if (values.length == 0) {
+            return new FleetInfo.Stats(0, null, null, null, null, null);
+        }
+        return new FleetInfo.Stats(
+                values.length,
+                values[0],
+                values[values.length - 1],
+                percentile(values, 50),
+                percentile(values, 90),
+                percentile(values, 99)
+        );
+    }
+
+    /**
+     * Nearest-rank percentile over an already sorted array
+     */
+    static double percentile(double[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.min(sorted.length, Math.max(1, rank)) - 1];
+    }
+
+    private static FleetInfo.InstanceInfo unreachable(URI uri, String error) {
+        return new FleetInfo.InstanceInfo(uri.toString(), "unreachable", null, null, null, null, null, null, error);
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof ExecutionException || cause instanceof CompletionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    private record Outcome<T>(T body, long latencyMs, boolean hedged) {}
+
+    /**
+     * One request running on its own virtual thread. Cancelling it interrupts the thread, which
+     * aborts the HTTP exchange and releases its permit; a call cancelled before its thread got to
+     * run releases the permit it was handed instead.
+     */
+    private final class Call<T> {
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final boolean holdsPermit;
+        private final Future<?> task;
+
+        private Call(Callable<T> request, boolean holdsPermit) {
+            this.holdsPermit = holdsPermit;
+            this.task = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return;
+                }
+                try {
+                    result.complete(request.call());
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        }
+
+        private void cancel() {
+            if (claimed.compareAndSet(false, true)) {
+                if (holdsPermit) {
+                    permits.release();
+                }
+                result.cancel(false);
+            } else if (!result.isDone()) {
+                task.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.learn.springboot.service;
+
+import com.learn.springboot.counter.CounterFile;
+import com.learn.springboot.counter.CounterSnapshot;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps cumulative request counts and uptime history in a memory-mapped {@link CounterFile} so
+ * they survive restarts and can be read by a sidecar without going through HTTP. Disabled unless
+ * {@code app.counters.enabled} is set. A file that cannot be opened or is locked by another writer
+ * does not fail startup; responses go uncounted until a later heartbeat manages to open it.
+ */
+@Service
+public class PersistentCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistentCounterService.class);
+
+    @Value("${app.counters.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.counters.path:/data/counters.bin}")
+    private Path path;
+
+    @Value("${app.counters.slots:64}")
+    private int slots;
+
+    @Value("${app.counters.heartbeat:5s}")
+    private Duration heartbeat;
+
+    private volatile CounterFile counterFile;
+    private ScheduledExecutorService scheduler;
+    private boolean closed;
+    private boolean waitingLogged;
+
+    @PostConstruct
+    void open() {
+        if (!enabled) {
+            return;
+        }
+        tick();
+
+        // Heartbeats once the file is open; until then keeps trying to take it over, since during a
+        // rolling update the previous pod holds the file's lock until it shuts down
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("counter-heartbeat")
+                .daemon(true)
+                .factory());
+        scheduler.scheduleWithFixedDelay(this::tick, heartbeat.toMillis(), heartbeat.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        closed = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (counterFile != null) {
+            try {
+                counterFile.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close counter file {}: {}", path, e.getMessage());
+            }
+            counterFile = null;
+        }
+    }
+
+    private synchronized void tick() {
+        if (closed) {
+            return;
+        }
+        if (counterFile != null) {
+            counterFile.heartbeat();
+            return;
+        }
+
+        try {
+            counterFile = CounterFile.tryOpen(path, slots).orElse(null);
+        } catch (IOException | RuntimeException e) {
+            logWaiting(e.getMessage());
+            return;
+        }
+        if (counterFile == null) {
+            logWaiting("locked by another writer");
+            return;
+        }
+        logger.info("Persistent counters at {} (restart #{}, {} ms uptime in earlier runs)",
+                path, counterFile.restarts(), counterFile.previousUptimeMillis());
+    }
+
+    private void logWaiting(String reason) {
+        if (!waitingLogged) {
+            logger.warn("Persistent counters at {} not recording yet ({}); retrying every {}", path, reason, heartbeat);
+            waitingLogged = true;
+        }
+    }
+
+    public boolean isEnabled() {
+        return counterFile != null;
+    }
+
+    public void record(String endpoint, int status) {
+        CounterFile file = counterFile;
+        if (file != null) {
+            file.increment(endpoint, status);
+        }
+    }
+
+    public Optional<CounterSnapshot> snapshot() {
+        CounterFile file = counterFile;
+        return file != null ? Optional.of(file.snapshot()) : Optional.empty();
+    }
+}
@@ -0,0 +1,188 @@
+package com.learn.springboot.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Renders the Prometheus exposition once per cache window and shares the encoded body between
+ * concurrent scrapers.
+ * <p>
+ * Each format has its own lock, so when several scrapers arrive together only one of them walks
+ * the meters; the others wait for and reuse that rendering. Rendering goes into buffers that are
+ * reused across windows, and the gzip encoding is produced at most once per rendering.
+ */
+@Service
+public class PrometheusScrapeCache {
+
+    public enum Format {
+        TEXT("text/plain; version=0.0.4; charset=utf-8"),
+        OPENMETRICS("application/openmetrics-text; version=1.0.0; charset=utf-8");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+    }
+
+    /**
+     * An encoded scrape body, ready to be written to the response
+     */
+    public record Body(byte[] content, String contentType, boolean gzipped) {}
+
+    @Value("${app.metrics.scrape-cache.window:5s}")
+    private Duration window;
+
+    @Autowired
+    private ObjectProvider<PrometheusMeterRegistry> prometheusRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Format, Slot> slots = new EnumMap<>(Format.class);
+
+    @PostConstruct
+    void init() {
+        for (Format format : Format.values()) {
+            String tag = format.name().toLowerCase(Locale.ROOT);
+            slots.put(format, new Slot(
+                    Timer.builder("prometheus.scrape.render")
+                            .description("Time spent rendering the Prometheus exposition")
+                            .tag("format", tag)
+                            .register(meterRegistry),
+                    scrapeCounter(tag, "hit"),
+                    scrapeCounter(tag, "miss")
+            ));
+        }
+    }
+
+    /**
+     * Return the current exposition in the given format, rendering it only if the cached copy is
+     * older than the cache window. Empty when Prometheus export is not enabled.
+     */
+    public Optional<Body> scrape(Format format, boolean gzip) {
+        PrometheusMeterRegistry registry = prometheusRegistry.getIfAvailable();
+        if (registry == null) {
+            return Optional.empty();
+        }
+
+        Slot slot = slots.get(format);
+        Snapshot snapshot = slot.snapshot;
+        boolean hit = snapshot != null && snapshot.isFresh(window);
+
+        if (!hit) {
+            synchronized (slot) {
+                snapshot = slot.snapshot;
+                hit = snapshot != null && snapshot.isFresh(window);
+                if (!hit) {
+                    snapshot = render(registry, format, slot);
+                    slot.snapshot = snapshot;
+                }
+            }
+        }
+
+        (hit ? slot.hits : slot.misses).increment();
+
+        byte[] content = gzip ? snapshot.gzipped(slot) : snapshot.plain;
+        return Optional.of(new Body(content, format.contentType(), gzip));
+    }
+
+    private Snapshot render(PrometheusMeterRegistry registry, Format format, Slot slot) {
+        long start = System.nanoTime();
+        slot.buffer.reset();
+        try {
+            registry.scrape(slot.buffer, format.contentType());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to render Prometheus scrape", e);
+        }
+        byte[] plain = slot.buffer.toByteArray();
+        slot.renderTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        return new Snapshot(plain, System.nanoTime());
+    }
+
+    private Counter scrapeCounter(String format, String cache) {
+        return Counter.builder("prometheus.scrape.requests")
+                .description("Scrapes served by the cached Prometheus endpoint")
+                .tag("format", format)
+                .tag("cache", cache)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Per-format state: the latest snapshot plus the buffers reused by every rendering
+     */
+    private static final class Slot {
+
+        private volatile Snapshot snapshot;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+        private final ByteArrayOutputStream gzipBuffer = new ByteArrayOutputStream(16 * 1024);
+        private final Timer renderTimer;
+        private final Counter hits;
+        private final Counter misses;
+
+        private Slot(Timer renderTimer, Counter hits, Counter misses) {
+            this.renderTimer = renderTimer;
+            this.hits = hits;
+            this.misses = misses;
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final byte[] plain;
+        private final long renderedAtNanos;
+        private volatile byte[] gzipped;
+
+        private Snapshot(byte[] plain, long renderedAtNanos) {
+            this.plain = plain;
+            this.renderedAtNanos = renderedAtNanos;
+        }
+
+        private boolean isFresh(Duration window) {
+            return System.nanoTime() - renderedAtNanos < window.toNanos();
+        }
+
+        private byte[] gzipped(Slot slot) {
+            byte[] result = gzipped;
+            if (result == null) {
+                synchronized (slot) {
+                    result = gzipped;
+                    if (result == null) {
+                        slot.gzipBuffer.reset();
+                        try (GZIPOutputStream out = new GZIPOutputStream(slot.gzipBuffer, 8192)) {
+                            out.write(plain);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException("Failed to gzip Prometheus scrape", e);
+                        }
+                        result = slot.gzipBuffer.toByteArray();
+                        gzipped = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
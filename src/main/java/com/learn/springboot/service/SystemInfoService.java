@@ -1,7 +1,11 @@
 package com.learn.springboot.service;
 
 import com.learn.springboot.dto.HealthData;
+import com.learn.springboot.dto.InfoProjection;
+import com.learn.springboot.dto.InfoProjection.Field;
+import com.learn.springboot.dto.InfoProjection.Section;
 import com.learn.springboot.dto.SystemInfo;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -10,6 +14,7 @@ import java.lang.management.MemoryMXBean;
 import java.lang.management.OperatingSystemMXBean;
 import java.time.Instant;
 import java.util.Locale;
+import java.util.function.Supplier;
 
 /**
  * Service for gathering system and application information
@@ -29,6 +34,9 @@ public class SystemInfoService {
     @Value("${server.port:8080}")
     private String port;
 
+    @Autowired
+    private PersistentCounterService persistentCounterService;
+
     private final long startTime = System.currentTimeMillis();
 
     public double getUptime() {
@@ -77,32 +85,79 @@ public class SystemInfoService {
         );
     }
 
+    /**
+     * Restart count, uptime and request totals across all runs, or null without persistent counters
+     */
+    public SystemInfo.HistoryInfo getHistory() {
+        return getHistory(InfoProjection.ALL);
+    }
+
     public SystemInfo getSystemInfo() {
-        OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+        return getSystemInfo(InfoProjection.ALL);
+    }
 
-        SystemInfo.ApplicationInfo appInfo = new SystemInfo.ApplicationInfo(
-                applicationName,
-                applicationVersion,
-                environment,
-                Instant.now().toString()
+    /**
+     * Build only the parts of {@link SystemInfo} selected by the projection. Each section and field
+     * is computed on demand, so unselected parts cost nothing and stay null (omitted from JSON).
+     */
+    public SystemInfo getSystemInfo(InfoProjection projection) {
+        return new SystemInfo(
+                section(projection, Section.APPLICATION, () -> getApplicationInfo(projection)),
+                section(projection, Section.SYSTEM, () -> getSystemDetails(projection)),
+                section(projection, Section.ENVIRONMENT, () -> getEnvironmentInfo(projection)),
+                section(projection, Section.HISTORY, () -> getHistory(projection))
         );
+    }
 
-        SystemInfo.SystemDetails systemDetails = new SystemInfo.SystemDetails(
-                osBean.getName().toLowerCase(Locale.ROOT),
-                osBean.getArch(),
-                System.getProperty("java.version"),
-                getUptime(),
-                getDetailedMemoryUsage(),
-                getCpuInfo()
+    private SystemInfo.ApplicationInfo getApplicationInfo(InfoProjection projection) {
+        return new SystemInfo.ApplicationInfo(
+                field(projection, Field.APPLICATION_NAME, () -> applicationName),
+                field(projection, Field.APPLICATION_VERSION, () -> applicationVersion),
+                field(projection, Field.APPLICATION_ENVIRONMENT, () -> environment),
+                field(projection, Field.APPLICATION_TIMESTAMP, () -> Instant.now().toString())
         );
+    }
 
-        SystemInfo.EnvironmentInfo envInfo = new SystemInfo.EnvironmentInfo(
-                environment,
-                port,
-                "0.0.0.0"
+    private SystemInfo.SystemDetails getSystemDetails(InfoProjection projection) {
+        OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+
+        return new SystemInfo.SystemDetails(
+                field(projection, Field.SYSTEM_PLATFORM, () -> osBean.getName().toLowerCase(Locale.ROOT)),
+                field(projection, Field.SYSTEM_ARCH, osBean::getArch),
+                field(projection, Field.SYSTEM_JAVA_VERSION, () -> System.getProperty("java.version")),
+                field(projection, Field.SYSTEM_UPTIME, this::getUptime),
+                field(projection, Field.SYSTEM_MEMORY, this::getDetailedMemoryUsage),
+                field(projection, Field.SYSTEM_CPU, this::getCpuInfo)
         );
+    }
+
+    private SystemInfo.EnvironmentInfo getEnvironmentInfo(InfoProjection projection) {
+        return new SystemInfo.EnvironmentInfo(
+                field(projection, Field.ENVIRONMENT_NODE_ENV, () -> environment),
+                field(projection, Field.ENVIRONMENT_PORT, () -> port),
+                field(projection, Field.ENVIRONMENT_HOST, () -> "0.0.0.0")
+        );
+    }
+
+    private SystemInfo.HistoryInfo getHistory(InfoProjection projection) {
+        return persistentCounterService.snapshot()
+                .map(snapshot -> new SystemInfo.HistoryInfo(
+                        field(projection, Field.HISTORY_RESTARTS, snapshot::restarts),
+                        field(projection, Field.HISTORY_TOTAL_UPTIME,
+                                () -> snapshot.previousUptimeMillis() / 1000.0 + getUptime()),
+                        field(projection, Field.HISTORY_TOTAL_REQUESTS, snapshot::totalRequests),
+                        field(projection, Field.HISTORY_CLIENT_ERRORS, snapshot::clientErrors),
+                        field(projection, Field.HISTORY_SERVER_ERRORS, snapshot::serverErrors)
+                ))
+                .orElse(null);
+    }
+
+    private static <T> T section(InfoProjection projection, Section section, Supplier<T> supplier) {
+        return projection.includes(section) ? supplier.get() : null;
+    }
 
-        return new SystemInfo(appInfo, systemDetails, envInfo);
+    private static <T> T field(InfoProjection projection, Field field, Supplier<T> supplier) {
+        return projection.includes(field) ? supplier.get() : null;
     }
 
     public HealthData getHealthData() {
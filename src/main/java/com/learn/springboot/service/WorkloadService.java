@@ -0,0 +1,213 @@
+package com.learn.springboot.service;
+
+import com.learn.springboot.dto.WorkloadRequest;
+import com.learn.springboot.dto.WorkloadResult;
+import com.learn.springboot.exception.WorkloadLimitException;
+import com.sun.management.HotSpotDiagnosticMXBean;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Performs parameterized synthetic work (CPU, allocation, retention, blocking, lock contention and
+ * direct memory) and measures what it cost on the request thread. Only active with the
+ * "workload" profile; meant for calibrating autoscaling, node sizing and GC choice.
+ */
+@Service
+@Profile("workload")
+public class WorkloadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkloadService.class);
+
+    private static final int CHUNK_BYTES = 64 * 1024;
+    private static final int PAGE_BYTES = 4096;
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Share of the maximum heap that retainKb may keep alive, so retention cannot starve the app
+    private static final int MAX_RETAINED_HEAP_PERCENT = 25;
+
+    @Value("${app.workload.max-retained-mb:128}")
+    private long maxRetainedMb;
+
+    private long maxRetainedBytes;
+    private long maxDirectBytes;
+
+    // Retained allocations survive the request until the cap evicts them or they are released
+    private final ConcurrentLinkedDeque<byte[]> retained = new ConcurrentLinkedDeque<>();
+    private final AtomicLong retainedBytes = new AtomicLong();
+
+    // Shared by every request so that concurrent lockHoldMillis calls contend with each other
+    private final ReentrantLock contendedLock = new ReentrantLock();
+
+    // Written with the results of CPU and allocation work so the JIT cannot eliminate it
+    private volatile long sink;
+
+    @PostConstruct
+    void init() {
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        maxRetainedBytes = Math.min(maxRetainedMb * 1024 * 1024, maxHeap / 100 * MAX_RETAINED_HEAP_PERCENT);
+        maxDirectBytes = maxDirectMemory(maxHeap);
+        logger.info("Workload limits: {} MB retained ({}% of a {} MB heap, at most app.workload.max-retained-mb={}), "
+                        + "{} MB direct memory",
+                maxRetainedBytes >> 20, MAX_RETAINED_HEAP_PERCENT, maxHeap >> 20, maxRetainedMb, maxDirectBytes >> 20);
+    }
+
+    public WorkloadResult run(WorkloadRequest request) throws InterruptedException {
+        long directBufferBytes = request.directBufferKbOrZero() * 1024L;
+        if (directBufferBytes > maxDirectBytes) {
+            throw new WorkloadLimitException("directBufferKb", "directBufferKb must be <= "
+                    + maxDirectBytes / 1024 + " on this JVM (-XX:MaxDirectMemorySize)");
+        }
+
+        long wallStart = System.nanoTime();
+        long cpuStart = THREAD_MX_BEAN.getCurrentThreadCpuTime();
+        long allocatedStart = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+
+        burnCpu(request.cpuMillisOrZero());
+        allocate(request.allocateKbOrZero() * 1024L);
+        retain(request.retainKbOrZero() * 1024L);
+        long directBytes = touchDirectBuffer((int) directBufferBytes);
+
+        long sleptNanos = 0;
+        if (request.sleepMillisOrZero() > 0) {
+            long sleepStart = System.nanoTime();
+            Thread.sleep(request.sleepMillisOrZero());
+            sleptNanos = System.nanoTime() - sleepStart;
+        }
+
+        long lockWaitNanos = 0;
+        long lockHeldNanos = 0;
+        if (request.lockHoldMillisOrZero() > 0) {
+            long waitStart = System.nanoTime();
+            contendedLock.lockInterruptibly();
+            long acquired = System.nanoTime();
+            try {
+                lockWaitNanos = acquired - waitStart;
+                Thread.sleep(request.lockHoldMillisOrZero());
+            } finally {
+                contendedLock.unlock();
+                lockHeldNanos = System.nanoTime() - acquired;
+            }
+        }
+
+        WorkloadResult.Cost cost = new WorkloadResult.Cost(
+                millis(System.nanoTime() - wallStart),
+                millis(THREAD_MX_BEAN.getCurrentThreadCpuTime() - cpuStart),
+                THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - allocatedStart,
+                millis(sleptNanos),
+                millis(lockWaitNanos),
+                millis(lockHeldNanos),
+                directBytes,
+                retainedBytes.get(),
+                maxRetainedBytes
+        );
+        return new WorkloadResult(request, cost);
+    }
+
+    /**
+     * Drop every retained allocation and return how many bytes were released
+     */
+    public long releaseRetained() {
+        long released = 0;
+        byte[] chunk;
+        while ((chunk = retained.pollFirst()) != null) {
+            released += chunk.length;
+            retainedBytes.addAndGet(-chunk.length);
+        }
+        return released;
+    }
+
+    private void burnCpu(int cpuMillis) {
+        if (cpuMillis <= 0) {
+            return;
+        }
+        long target = THREAD_MX_BEAN.getCurrentThreadCpuTime() + cpuMillis * 1_000_000L;
+        long x = System.nanoTime();
+        do {
+            // xorshift keeps the ALU busy without touching memory
+            for (int i = 0; i < 10_000; i++) {
+                x ^= x << 13;
+                x ^= x >>> 7;
+                x ^= x << 17;
+            }
+        } while (THREAD_MX_BEAN.getCurrentThreadCpuTime() < target);
+        sink = x;
+    }
+
+    private void allocate(long bytes) {
+        long checksum = 0;
+        for (long remaining = bytes; remaining > 0; remaining -= CHUNK_BYTES) {
+            byte[] chunk = new byte[(int) Math.min(CHUNK_BYTES, remaining)];
+            chunk[chunk.length - 1] = 1;
+            checksum += chunk[chunk.length - 1];
+        }
+        sink = checksum;
+    }
+
+    /**
+     * Keep {@code bytes} alive, evicting the oldest retained chunks first so that the total never
+     * exceeds the cap, not even while the new chunks are being allocated
+     */
+    private synchronized void retain(long bytes) {
+        long keep = Math.min(bytes, maxRetainedBytes);
+        if (keep <= 0) {
+            return;
+        }
+
+        while (retainedBytes.get() > maxRetainedBytes - keep) {
+            byte[] oldest = retained.pollFirst();
+            if (oldest == null) {
+                break;
+            }
+            retainedBytes.addAndGet(-oldest.length);
+        }
+
+        for (long remaining = keep; remaining > 0; remaining -= CHUNK_BYTES) {
+            byte[] chunk = new byte[(int) Math.min(CHUNK_BYTES, remaining)];
+            retained.addLast(chunk);
+            retainedBytes.addAndGet(chunk.length);
+        }
+    }
+
+    private long touchDirectBuffer(int bytes) {
+        if (bytes <= 0) {
+            return 0;
+        }
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.allocateDirect(bytes);
+        } catch (OutOfMemoryError e) {
+            // Within the limit, but other direct buffers currently hold the rest of it
+            throw new WorkloadLimitException("directBufferKb", "directBufferKb=" + bytes / 1024
+                    + " exceeds the direct memory currently available: " + e.getMessage());
+        }
+        // Write one byte per page so the memory is actually committed
+        for (int position = 0; position < bytes; position += PAGE_BYTES) {
+            buffer.put(position, (byte) 1);
+        }
+        sink = buffer.get(bytes - 1);
+        return buffer.capacity();
+    }
+
+    private static long maxDirectMemory(long maxHeap) {
+        HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+        long configured = Long.parseLong(hotSpot.getVMOption("MaxDirectMemorySize").getValue());
+        // 0 means unset, in which case the JDK allows as much direct memory as maximum heap
+        return configured > 0 ? configured : maxHeap;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
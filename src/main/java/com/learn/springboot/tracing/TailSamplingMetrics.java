@@ -0,0 +1,86 @@
+package com.learn.springboot.tracing;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters describing the decisions made by {@link TailSamplingSpanExporter}
+ */
+public class TailSamplingMetrics implements MeterBinder {
+
+    private final AtomicLong keptTraces = new AtomicLong();
+    private final AtomicLong droppedTraces = new AtomicLong();
+    private final AtomicLong overflowTraces = new AtomicLong();
+    private final AtomicLong droppedSpans = new AtomicLong();
+    private final AtomicLong bufferedTraces = new AtomicLong();
+    private final AtomicLong bufferedSpans = new AtomicLong();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("tracing.tail.sampling.traces", keptTraces, AtomicLong::get)
+                .tag("decision", "kept")
+                .description("Traces exported by the tail sampler")
+                .register(registry);
+        FunctionCounter.builder("tracing.tail.sampling.traces", droppedTraces, AtomicLong::get)
+                .tag("decision", "dropped")
+                .description("Traces dropped by the tail sampler")
+                .register(registry);
+        FunctionCounter.builder("tracing.tail.sampling.overflow", overflowTraces, AtomicLong::get)
+                .description("Traces decided early because the trace buffer was full")
+                .register(registry);
+        FunctionCounter.builder("tracing.tail.sampling.spans.dropped", droppedSpans, AtomicLong::get)
+                .description("Spans discarded because their trace hit the per-trace span limit")
+                .register(registry);
+        Gauge.builder("tracing.tail.sampling.buffered.traces", bufferedTraces, AtomicLong::get)
+                .description("Traces waiting for a sampling decision")
+                .register(registry);
+        Gauge.builder("tracing.tail.sampling.buffered.spans", bufferedSpans, AtomicLong::get)
+                .description("Spans waiting for a sampling decision")
+                .register(registry);
+    }
+
+    public long keptTraces() {
+        return keptTraces.get();
+    }
+
+    public long droppedTraces() {
+        return droppedTraces.get();
+    }
+
+    public long overflowTraces() {
+        return overflowTraces.get();
+    }
+
+    public long droppedSpans() {
+        return droppedSpans.get();
+    }
+
+    public long bufferedTraces() {
+        return bufferedTraces.get();
+    }
+
+    public long bufferedSpans() {
+        return bufferedSpans.get();
+    }
+
+    void recordDecision(boolean kept) {
+        (kept ? keptTraces : droppedTraces).incrementAndGet();
+    }
+
+    void recordOverflow() {
+        overflowTraces.incrementAndGet();
+    }
+
+    void recordDroppedSpan() {
+        droppedSpans.incrementAndGet();
+    }
+
+    void updateBuffer(long traces, long spans) {
+        bufferedTraces.set(traces);
+        bufferedSpans.set(spans);
+    }
+}
@@ -0,0 +1,204 @@
+package com.learn.springboot.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Span exporter that buffers finished spans per trace and only forwards whole traces that are
+ * worth keeping: slower than the latency threshold of their route, errored, or part of a small
+ * random baseline. Everything else is dropped before it reaches the real exporter.
+ * <p>
+ * A trace is decided when its local root span ends, or when it has waited longer than the
+ * decision timeout. The buffer is bounded by a maximum number of traces, of spans per trace and of
+ * spans in total; when a limit is reached the oldest traces are decided early on the spans they
+ * already have.
+ */
+public class TailSamplingSpanExporter implements SpanExporter {
+
+    private static final AttributeKey<String> HTTP_ROUTE = AttributeKey.stringKey("http.route");
+    private static final AttributeKey<Long> HTTP_STATUS_CODE = AttributeKey.longKey("http.response.status_code");
+
+    /**
+     * Sampling policy and buffer limits
+     */
+    public record Policy(
+            Duration defaultThreshold,
+            Map<String, Duration> routeThresholds,
+            double baselineRatio,
+            int maxTraces,
+            int maxSpansPerTrace,
+            int maxBufferedSpans,
+            Duration decisionWait
+    ) {
+
+        public Policy {
+            routeThresholds = routeThresholds != null ? Map.copyOf(routeThresholds) : Map.of();
+        }
+
+        @Override
+        public Map<String, Duration> routeThresholds() {
+            return Map.copyOf(routeThresholds);
+        }
+
+        Duration thresholdFor(String route) {
+            return route != null ? routeThresholds.getOrDefault(route, defaultThreshold) : defaultThreshold;
+        }
+    }
+
+    private final SpanExporter delegate;
+    private final Policy policy;
+    private final TailSamplingMetrics metrics;
+
+    // Insertion-ordered so the eldest trace is evicted first on overflow; guarded by "this"
+    private final LinkedHashMap<String, PendingTrace> pending = new LinkedHashMap<>();
+    private long bufferedSpans;
+
+    public TailSamplingSpanExporter(SpanExporter delegate, Policy policy, TailSamplingMetrics metrics) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        List<SpanData> kept = new ArrayList<>();
+        long now = System.nanoTime();
+
+        synchronized (this) {
+            for (SpanData span : spans) {
+                PendingTrace trace = pending.get(span.getTraceId());
+                if (trace == null) {
+                    if (pending.size() >= policy.maxTraces()) {
+                        evictEldest(kept);
+                    }
+                    trace = new PendingTrace(now);
+                    pending.put(span.getTraceId(), trace);
+                }
+
+                trace.add(span);
+
+                if (isLocalRoot(span)) {
+                    pending.remove(span.getTraceId());
+                    decide(trace, kept);
+                }
+                while (bufferedSpans > policy.maxBufferedSpans() && !pending.isEmpty()) {
+                    evictEldest(kept);
+                }
+            }
+            expire(now, kept);
+            metrics.updateBuffer(pending.size(), bufferedSpans);
+        }
+
+        return kept.isEmpty() ? CompletableResultCode.ofSuccess() : delegate.export(kept);
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return delegate.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        List<SpanData> kept = new ArrayList<>();
+        synchronized (this) {
+            Iterator<PendingTrace> iterator = pending.values().iterator();
+            while (iterator.hasNext()) {
+                PendingTrace trace = iterator.next();
+                iterator.remove();
+                decide(trace, kept);
+            }
+            metrics.updateBuffer(0, 0);
+        }
+        if (!kept.isEmpty()) {
+            delegate.export(kept).join(10, TimeUnit.SECONDS);
+        }
+        return delegate.shutdown();
+    }
+
+    private void evictEldest(List<SpanData> kept) {
+        Iterator<PendingTrace> iterator = pending.values().iterator();
+        PendingTrace eldest = iterator.next();
+        iterator.remove();
+        metrics.recordOverflow();
+        decide(eldest, kept);
+    }
+
+    private void expire(long now, List<SpanData> kept) {
+        long maxWaitNanos = policy.decisionWait().toNanos();
+        Iterator<PendingTrace> iterator = pending.values().iterator();
+        while (iterator.hasNext()) {
+            PendingTrace trace = iterator.next();
+            if (now - trace.firstSeenNanos < maxWaitNanos) {
+                // Insertion order means every later trace is younger
+                break;
+            }
+            iterator.remove();
+            decide(trace, kept);
+        }
+    }
+
+    private void decide(PendingTrace trace, List<SpanData> kept) {
+        bufferedSpans -= trace.spans.size();
+        boolean keep = trace.errored || trace.slow
+                || ThreadLocalRandom.current().nextDouble() < policy.baselineRatio();
+        if (keep) {
+            kept.addAll(trace.spans);
+        }
+        metrics.recordDecision(keep);
+    }
+
+    private static boolean isLocalRoot(SpanData span) {
+        return !span.getParentSpanContext().isValid() || span.getParentSpanContext().isRemote();
+    }
+
+    private boolean isErrored(SpanData span) {
+        if (span.getStatus().getStatusCode() == StatusCode.ERROR) {
+            return true;
+        }
+        Long statusCode = span.getAttributes().get(HTTP_STATUS_CODE);
+        return statusCode != null && statusCode >= 500;
+    }
+
+    private boolean isSlow(SpanData span) {
+        long durationNanos = span.getEndEpochNanos() - span.getStartEpochNanos();
+        return durationNanos > policy.thresholdFor(span.getAttributes().get(HTTP_ROUTE)).toNanos();
+    }
+
+    private final class PendingTrace {
+
+        private final long firstSeenNanos;
+        private final List<SpanData> spans = new ArrayList<>();
+        private boolean errored;
+        private boolean slow;
+
+        private PendingTrace(long firstSeenNanos) {
+            this.firstSeenNanos = firstSeenNanos;
+        }
+
+        private void add(SpanData span) {
+            // Outcome flags are tracked even for spans that no longer fit in the buffer
+            errored |= isErrored(span);
+            slow |= isLocalRoot(span) && isSlow(span);
+
+            if (spans.size() < policy.maxSpansPerTrace()) {
+                spans.add(span);
+                bufferedSpans++;
+            } else {
+                metrics.recordDroppedSpan();
+            }
+        }
+    }
+}
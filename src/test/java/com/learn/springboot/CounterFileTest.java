@@ -0,0 +1,183 @@
+package com.learn.springboot;
+
+import com.learn.springboot.counter.CounterFile;
+import com.learn.springboot.counter.CounterFileReader;
+import com.learn.springboot.counter.CounterSnapshot;
+import com.learn.springboot.service.PersistentCounterService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Persistent Counter File Tests")
+class CounterFileTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Should keep counts and count restarts across reopen")
+    void shouldPersistAcrossRestarts() throws IOException {
+        Path path = directory.resolve("counters.bin");
+
+        try (CounterFile file = CounterFile.open(path, 8)) {
+            file.increment("/info", 200);
+            file.increment("/info", 200);
+            file.increment("/info", 404);
+            assertThat(file.restarts()).isZero();
+        }
+
+        try (CounterFile file = CounterFile.open(path, 8)) {
+            file.increment("/info", 503);
+            CounterSnapshot snapshot = file.snapshot();
+
+            assertThat(file.restarts()).isEqualTo(1);
+            assertThat(snapshot.headerValid()).isTrue();
+            assertThat(snapshot.restarts()).isEqualTo(1);
+            assertThat(snapshot.totalRequests()).isEqualTo(4);
+            assertThat(snapshot.clientErrors()).isEqualTo(1);
+            assertThat(snapshot.serverErrors()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should be readable by a separate read-only mapping while open")
+    void shouldBeReadableWhileOpen() throws IOException {
+        Path path = directory.resolve("counters.bin");
+
+        try (CounterFile file = CounterFile.open(path, 8);
+             FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            file.increment("/healthz", 200);
+
+            CounterSnapshot snapshot = CounterFileReader.read(
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+
+            assertThat(snapshot.endpoints())
+                    .filteredOn(counts -> counts.endpoint().equals("/healthz"))
+                    .singleElement()
+                    .satisfies(counts -> assertThat(counts.success()).isEqualTo(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Should fold endpoints into the other slot once capacity is exhausted")
+    void shouldFoldOverflowIntoOther() throws IOException {
+        try (CounterFile file = CounterFile.open(directory.resolve("counters.bin"), 2)) {
+            file.increment("/a", 200);
+            file.increment("/b", 200);
+            file.increment("/c", 200);
+
+            CounterSnapshot snapshot = file.snapshot();
+            assertThat(snapshot.endpoints()).hasSize(2);
+            assertThat(snapshot.endpoints())
+                    .filteredOn(counts -> counts.endpoint().equals(CounterFile.OTHER))
+                    .singleElement()
+                    .satisfies(counts -> assertThat(counts.success()).isEqualTo(2));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reset history but keep verified slots when the header checksum is bad")
+    void shouldSalvageSlotsFromCorruptHeader() throws IOException {
+        Path path = directory.resolve("counters.bin");
+        try (CounterFile file = CounterFile.open(path, 8)) {
+            file.increment("/info", 200);
+        }
+        try (CounterFile file = CounterFile.open(path, 8)) {
+            assertThat(file.restarts()).isEqualTo(1);
+        }
+
+        // Overwrite the restart count without updating the header checksum
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), 24);
+        }
+
+        try (CounterFile file = CounterFile.open(path, 8)) {
+            assertThat(file.restarts()).isZero();
+            assertThat(file.snapshot().totalRequests()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should save an unrecognised file aside and start fresh")
+    void shouldSaveAsideUnknownFile() throws IOException {
+        Path path = directory.resolve("counters.bin");
+        Files.write(path, new byte[512]);
+
+        try (CounterFile file = CounterFile.open(path, 8)) {
+            assertThat(file.snapshot().totalRequests()).isZero();
+        }
+        try (var files = Files.list(directory)) {
+            assertThat(files.map(p -> p.getFileName().toString()))
+                    .anyMatch(name -> name.startsWith("counters.bin.corrupt-"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse a second writer without touching the file")
+    void shouldRefuseSecondWriter() throws IOException {
+        Path path = directory.resolve("counters.bin");
+
+        try (CounterFile first = CounterFile.open(path, 8)) {
+            first.increment("/info", 200);
+
+            assertThat(CounterFile.tryOpen(path, 8)).isEmpty();
+            assertThatThrownBy(() -> CounterFile.open(path, 8)).isInstanceOf(IOException.class);
+            assertThat(first.snapshot().totalRequests()).isEqualTo(1);
+        }
+        try (var files = Files.list(directory)) {
+            assertThat(files).containsExactly(path);
+        }
+    }
+
+    @Test
+    @DisplayName("Should let a waiting writer take over once the previous writer closes")
+    void shouldTakeOverAfterPreviousWriterCloses() throws Exception {
+        Path path = directory.resolve("counters.bin");
+        PersistentCounterService previous = counterService(path);
+        PersistentCounterService next = counterService(path);
+        try {
+            ReflectionTestUtils.invokeMethod(previous, "open");
+            previous.record("/info", 200);
+
+            ReflectionTestUtils.invokeMethod(next, "open");
+            assertThat(next.isEnabled()).isFalse();
+
+            ReflectionTestUtils.invokeMethod(previous, "close");
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (!next.isEnabled() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertThat(next.isEnabled()).isTrue();
+            next.record("/info", 200);
+            assertThat(next.snapshot()).hasValueSatisfying(snapshot -> {
+                assertThat(snapshot.restarts()).isEqualTo(1);
+                assertThat(snapshot.totalRequests()).isEqualTo(2);
+            });
+        } finally {
+            ReflectionTestUtils.invokeMethod(previous, "close");
+            ReflectionTestUtils.invokeMethod(next, "close");
+        }
+    }
+
+    private static PersistentCounterService counterService(Path path) {
+        PersistentCounterService service = new PersistentCounterService();
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "path", path);
+        ReflectionTestUtils.setField(service, "slots", 8);
+        ReflectionTestUtils.setField(service, "heartbeat", Duration.ofMillis(20));
+        return service;
+    }
+}
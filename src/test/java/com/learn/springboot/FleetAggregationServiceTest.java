@@ -0,0 +1,196 @@
+package com.learn.springboot;
+
+import com.learn.springboot.dto.FleetInfo;
+import com.learn.springboot.service.FleetAggregationService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DisplayName("Fleet Aggregation Service Tests")
+class FleetAggregationServiceTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FleetAggregationService fleetAggregationService;
+
+    @Test
+    @DisplayName("Should merge reachable peers and report unreachable ones")
+    void shouldMergeReachableAndUnreachablePeers() {
+        URI self = URI.create("http://localhost:" + port);
+        URI unreachable = URI.create("http://localhost:1");
+
+        FleetInfo fleetInfo = fleetAggregationService.aggregate(List.of(self, self, unreachable));
+
+        assertThat(fleetInfo.peers()).isEqualTo(3);
+        assertThat(fleetInfo.reachable()).isEqualTo(2);
+        assertThat(fleetInfo.versions().values()).containsExactly(2L);
+        assertThat(fleetInfo.stats().get("heapUsed").count()).isEqualTo(2);
+        assertThat(fleetInfo.stats().get("heapUsed").min())
+                .isLessThanOrEqualTo(fleetInfo.stats().get("heapUsed").p99());
+        assertThat(fleetInfo.instances().get(0).status()).isEqualTo("healthy");
+        assertThat(fleetInfo.instances().get(2).status()).isEqualTo("unreachable");
+        assertThat(fleetInfo.instances().get(2).error()).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("Should return an empty fleet when no peers are configured")
+    void shouldReturnEmptyFleetWithoutPeers() {
+        assertThat(fleetAggregationService.discoverPeers()).isEmpty();
+
+        FleetInfo fleetInfo = fleetAggregationService.aggregate();
+
+        assertThat(fleetInfo.peers()).isZero();
+        assertThat(fleetInfo.stats().get("uptime").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should serve the aggregated view via HTTP")
+    void shouldServeFleetInfo() {
+        String response = new RestTemplate()
+                .getForObject("http://localhost:" + port + "/fleet/info", String.class);
+
+        assertThat(response).contains("success").contains("stats");
+    }
+
+    @Test
+    @DisplayName("Should release the losing call's permit as soon as the hedge wins")
+    void shouldReleasePermitOfLosingCall() throws Exception {
+        RestTemplate restTemplate = new RestTemplate();
+        Map<String, String> bodies = Map.of(
+                "/info", restTemplate.getForObject("http://localhost:" + port + "/info", String.class),
+                "/healthz", restTemplate.getForObject("http://localhost:" + port + "/healthz", String.class));
+
+        // The first request to each path never answers, so only a hedge can succeed
+        Set<String> stalled = ConcurrentHashMap.newKeySet();
+        CountDownLatch shutdown = new CountDownLatch(1);
+        HttpServer peer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        peer.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        peer.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (stalled.add(path)) {
+                try {
+                    shutdown.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] body = bodies.get(path).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            try {
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (IOException e) {
+                // The client gave up on this request
+            }
+            exchange.close();
+        });
+        peer.start();
+
+        Semaphore permits = (Semaphore) ReflectionTestUtils.getField(fleetAggregationService, "permits");
+        int available = permits.availablePermits();
+        try {
+            FleetInfo fleetInfo = fleetAggregationService.aggregate(
+                    List.of(URI.create("http://localhost:" + peer.getAddress().getPort())));
+
+            assertThat(fleetInfo.reachable()).isEqualTo(1);
+            assertThat(fleetInfo.instances().get(0).hedged()).isTrue();
+
+            // Well before the stalled requests' 2s read timeout
+            long deadline = System.nanoTime() + Duration.ofMillis(1000).toNanos();
+            while (permits.availablePermits() < available && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(permits.availablePermits()).isEqualTo(available);
+        } finally {
+            shutdown.countDown();
+            peer.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should give up on a peer when no call permit frees up within the timeout")
+    void shouldTimeOutWaitingForPermit() {
+        Semaphore permits = (Semaphore) ReflectionTestUtils.getField(fleetAggregationService, "permits");
+        int drained = permits.drainPermits();
+        try {
+            FleetInfo fleetInfo = fleetAggregationService.aggregate(List.of(URI.create("http://localhost:" + port)));
+
+            assertThat(fleetInfo.reachable()).isZero();
+            assertThat(fleetInfo.instances().get(0).error()).contains("No fleet call permit");
+        } finally {
+            permits.release(drained);
+        }
+    }
+
+    @Test
+    @DisplayName("Should time out a peer whose permit frees up late and release its calls")
+    void shouldTimeOutPeerWithLatePermit() throws Exception {
+        // Every request stalls, so the calls only end when they are cancelled
+        CountDownLatch shutdown = new CountDownLatch(1);
+        HttpServer peer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        peer.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        peer.createContext("/", exchange -> {
+            try {
+                shutdown.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        peer.start();
+
+        Semaphore permits = (Semaphore) ReflectionTestUtils.getField(fleetAggregationService, "permits");
+        int drained = permits.drainPermits();
+        // Hand the permits back just before the 2s permit wait would give up
+        Thread releaser = Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(1800);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            permits.release(drained);
+        });
+        try {
+            FleetInfo fleetInfo = fleetAggregationService.aggregate(
+                    List.of(URI.create("http://localhost:" + peer.getAddress().getPort())));
+
+            assertThat(fleetInfo.reachable()).isZero();
+            assertThat(fleetInfo.instances().get(0).error()).startsWith("No answer from");
+
+            long deadline = System.nanoTime() + Duration.ofMillis(1000).toNanos();
+            while (permits.availablePermits() < drained && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(permits.availablePermits()).isEqualTo(drained);
+        } finally {
+            releaser.join();
+            shutdown.countDown();
+            peer.stop(0);
+        }
+    }
+}
@@ -6,9 +6,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
@@ -62,4 +64,30 @@ class HelloControllerIntegrationTest {
         assertThat(response).contains("application");
         assertThat(response).contains("system");
     }
+
+    @Test
+    @DisplayName("Should return only the projected info fields")
+    void shouldReturnProjectedSystemInfo() {
+        String url = "http://localhost:" + port + "/info?fields=system.memory,application.version";
+        String response = restTemplate.getForObject(url, String.class);
+
+        assertThat(response).isNotNull();
+        assertThat(response).contains("\"version\"").contains("\"heapUsed\"");
+        assertThat(response).doesNotContain("\"environment\"").doesNotContain("\"uptime\"")
+                .doesNotContain("\"name\"").doesNotContain("\"cpu\"");
+    }
+
+    @Test
+    @DisplayName("Should reject unknown info fields in the standard error format")
+    void shouldRejectUnknownInfoFields() {
+        String url = "http://localhost:" + port + "/info?fields=system.memory,system.gpu";
+
+        assertThatThrownBy(() -> restTemplate.getForObject(url, String.class))
+                .isInstanceOfSatisfying(HttpClientErrorException.BadRequest.class, ex -> {
+                    String body = ex.getResponseBodyAsString();
+                    assertThat(body).contains("\"error\":true");
+                    assertThat(body).contains("Invalid fields");
+                    assertThat(body).contains("system.gpu");
+                });
+    }
 }
@@ -0,0 +1,199 @@
+package com.learn.springboot;
+
+import com.learn.springboot.dto.InfoProjection;
+import com.learn.springboot.service.SystemInfoService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Allocation budgets and p99 latency reporting for every endpoint in {@link HelloController}.
+ * Excluded from the default test run; use {@code ./mvnw test -Pperformance}.
+ * <p>
+ * {@code /ping} builds no model and writes a constant, so it is almost pure MockMvc and Spring MVC
+ * overhead. It serves as the baseline the other endpoints are measured against; it is gated on
+ * its total allocation so that the harness itself cannot drift unnoticed.
+ */
+@Tag("performance")
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Hello Controller Performance Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class HelloControllerPerformanceTest {
+
+    private static final String BASELINE_PATH = "/ping";
+
+    private static final PerformanceProbe probe = new PerformanceProbe();
+
+    // Keeps synthetic allocations reachable so that escape analysis cannot remove them
+    private static volatile byte[] sink;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private SystemInfoService systemInfoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @AfterAll
+    static void writeReport() {
+        probe.writeReport();
+    }
+
+    @Order(1)
+    @ParameterizedTest(name = "{0} {1}")
+    @CsvSource({
+            "ping, /ping",
+            "root, /",
+            "healthz, /healthz",
+            "info, /info",
+            "infoEmptyFields, /info?fields=",
+            "infoVersion, /info?fields=application.version",
+            "infoMemory, /info?fields=system.memory",
+            "infoFleet, '/info?fields=application.version,system.uptime,system.memory'"
+    })
+    @DisplayName("Should stay within allocation budgets and report p99 latency")
+    void shouldStayWithinBudgets(String name, String path) throws Exception {
+        PerformanceProbe.Result result = BASELINE_PATH.equals(path)
+                ? probe.measure(name, request(path))
+                : probe.measure(name, request(path), request(BASELINE_PATH));
+
+        assertThat(result.bytesBudget())
+                .as("allocation budget for %s", name)
+                .isNotNull();
+        assertThat(result.allocationWithinBudget(probe.allocationToleranceBytes()))
+                .as("%s allocated %d bytes/request (%d net of the baseline), budget %d (+%d)",
+                        name, result.bytesPerOp(), result.netBytesPerOp(), result.bytesBudget(),
+                        probe.allocationToleranceBytes())
+                .isTrue();
+        // p99 is machine dependent and only gated when latency.tolerance is configured
+        probe.latencyTolerance().ifPresent(latencyTolerance ->
+                assertThat(result.latencyWithinBudget(latencyTolerance))
+                        .as("%s p99 was %d us, budget %d us (+%.0f%%)",
+                                name, result.p99Micros(), result.p99BudgetMicros(), latencyTolerance * 100)
+                        .isTrue());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should cost less for a narrow /info projection than for the full response")
+    void shouldCostLessForNarrowProjection() {
+        // Compares runs already measured above: plain /info, and /info?fields=, which binds the
+        // parameter like a projection does but selects everything
+        Optional<PerformanceProbe.Result> narrow = probe.result("infoVersion");
+        assumeTrue(narrow.isPresent(), "infoVersion was not measured");
+
+        for (String name : new String[]{"info", "infoEmptyFields"}) {
+            Optional<PerformanceProbe.Result> full = probe.result(name);
+            assumeTrue(full.isPresent(), name + " was not measured");
+            assertThat(narrow.get().netBytesPerOp())
+                    .as("infoVersion allocated %d net bytes/request, %s %d",
+                            narrow.get().netBytesPerOp(), name, full.get().netBytesPerOp())
+                    .isLessThan(full.get().netBytesPerOp());
+        }
+    }
+
+    @ParameterizedTest(name = "{0} fields={1}")
+    @Order(3)
+    @CsvSource({
+            "renderInfo, ''",
+            "renderInfoVersion, application.version",
+            "renderInfoFleet, 'application.version,system.uptime,system.memory'"
+    })
+    @DisplayName("Should stay within allocation budgets when building and serializing /info directly")
+    void shouldRenderProjectionWithinBudget(String name, String fields) throws Exception {
+        // The work a peer does for /info, without the ~26 KB of MockMvc and MVC overhead
+        PerformanceProbe.Result result = probe.measure(name, () ->
+                sink = objectMapper.writeValueAsBytes(systemInfoService.getSystemInfo(InfoProjection.parse(fields))));
+
+        assertThat(result.bytesBudget())
+                .as("allocation budget for %s", name)
+                .isNotNull();
+        assertThat(result.allocationWithinBudget(probe.allocationToleranceBytes()))
+                .as("%s allocated %d bytes/call, budget %d (+%d)",
+                        name, result.bytesPerOp(), result.bytesBudget(), probe.allocationToleranceBytes())
+                .isTrue();
+        if (!name.equals("renderInfo")) {
+            Optional<PerformanceProbe.Result> full = probe.result("renderInfo");
+            assumeTrue(full.isPresent(), "renderInfo was not measured");
+            assertThat(result.bytesPerOp())
+                    .as("%s allocated %d bytes/call, the full response %d", name, result.bytesPerOp(),
+                            full.get().bytesPerOp())
+                    .isLessThan(full.get().bytesPerOp());
+        }
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Should fail the allocation gate when /healthz allocates twice its own cost")
+    void shouldCatchDoubledHealthzAllocation() throws Exception {
+        Optional<PerformanceProbe.Result> healthz = probe.result("healthz");
+        assumeTrue(healthz.isPresent(), "healthz was not measured");
+        // An array's 16-byte header counts towards its allocation
+        int extraBytes = (int) healthz.get().netBytesPerOp() - 16;
+
+        PerformanceProbe.Operation healthzRequest = request("/healthz");
+        PerformanceProbe.Result doubled = probe.measure("healthzDoubled", () -> {
+            healthzRequest.run();
+            sink = new byte[extraBytes];
+        }, request(BASELINE_PATH));
+
+        assertThat(doubled.allocationWithin(healthz.get().bytesBudget(), probe.allocationToleranceBytes()))
+                .as("/healthz plus %d synthetic bytes allocated %d net bytes/request, budget %d (+%d)",
+                        extraBytes, doubled.netBytesPerOp(), healthz.get().bytesBudget(),
+                        probe.allocationToleranceBytes())
+                .isFalse();
+    }
+
+    /**
+     * A GET of {@code path} whose query is parsed once, up front, and passed as request parameters.
+     * MockMvc would otherwise parse the URI on every call on the measuring thread, about 2.7 KB per
+     * request that would be charged to the endpoint; end to end through Tomcat a query string costs
+     * well under 0.5 KB.
+     */
+    private PerformanceProbe.Operation request(String path) {
+        UriComponents uri = UriComponentsBuilder.fromUriString(path).build();
+        String uriPath = uri.getPath();
+        MultiValueMap<String, String> params = uri.getQueryParams();
+
+        return () -> {
+            MvcResult mvcResult = mockMvc.perform(get(uriPath).params(params)).andReturn();
+            if (mvcResult.getResponse().getStatus() != 200) {
+                throw new IllegalStateException(path + " returned " + mvcResult.getResponse().getStatus());
+            }
+        };
+    }
+}
@@ -58,7 +58,7 @@ class HelloControllerTest {
     @Test
     @DisplayName("Should return application and system information")
     void shouldReturnSystemInfo() {
-        var response = helloController.info();
+        var response = helloController.info(null);
 
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
         assertThat(response.getBody()).isNotNull();
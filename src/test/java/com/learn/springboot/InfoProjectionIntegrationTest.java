@@ -0,0 +1,81 @@
+package com.learn.springboot;
+
+import com.learn.springboot.dto.InfoProjection;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keeps {@link InfoProjection.Field} and the JSON that {@code /info} actually renders in step.
+ * Persistent counters are enabled so that the history section is present too.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.counters.enabled=true",
+        "app.counters.path=target/info-projection-${random.uuid}.bin"
+})
+@ActiveProfiles("test")
+@DisplayName("Info Projection Integration Tests")
+class InfoProjectionIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final RestTemplate restTemplate = new RestTemplate();
+
+    @Test
+    @DisplayName("Should render a value for every valid field path")
+    void shouldRenderEveryValidPath() {
+        String fields = String.join(",", Arrays.stream(InfoProjection.Field.values())
+                .map(InfoProjection.Field::path)
+                .toList());
+
+        Map<String, Object> data = info(fields);
+
+        for (InfoProjection.Field field : InfoProjection.Field.values()) {
+            assertThat(valueAt(data, field.path()))
+                    .as("value of %s", field.path())
+                    .isNotNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Should render only the requested field for each single path")
+    void shouldRenderOnlyTheRequestedPath() {
+        for (InfoProjection.Field field : InfoProjection.Field.values()) {
+            Map<String, Object> data = info(field.path());
+
+            assertThat(valueAt(data, field.path())).as("value of %s", field.path()).isNotNull();
+            assertThat(data).as("sections for %s", field.path())
+                    .containsOnlyKeys(field.section().path());
+            assertThat((Map<?, ?>) data.get(field.section().path())).as("fields for %s", field.path())
+                    .hasSize(1);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> info(String fields) {
+        Map<String, Object> response = restTemplate.getForObject(
+                "http://localhost:" + port + "/info?fields={fields}", Map.class, fields);
+        assertThat(response).isNotNull();
+        return (Map<String, Object>) response.get("data");
+    }
+
+    private static Object valueAt(Map<?, ?> data, String path) {
+        Object value = data;
+        for (String segment : path.split("\\.")) {
+            if (!(value instanceof Map<?, ?> map)) {
+                return null;
+            }
+            value = map.get(segment);
+        }
+        return value;
+    }
+}
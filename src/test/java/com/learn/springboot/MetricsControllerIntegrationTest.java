@@ -0,0 +1,77 @@
+package com.learn.springboot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "management.prometheus.metrics.export.enabled=true",
+                "app.metrics.scrape-cache.window=1m"
+        })
+@ActiveProfiles("test")
+@DisplayName("Metrics Controller Integration Tests")
+class MetricsControllerIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final RestTemplate restTemplate = new RestTemplate();
+
+    @Test
+    @DisplayName("Should serve the same rendering to scrapes within the cache window")
+    void shouldShareRenderingWithinWindow() {
+        ResponseEntity<byte[]> first = scrape("text/plain", null);
+        ResponseEntity<byte[]> second = scrape("text/plain", null);
+
+        assertThat(first.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE)).startsWith("text/plain");
+        assertThat(new String(first.getBody(), StandardCharsets.UTF_8)).contains("jvm_memory_used_bytes");
+        assertThat(second.getBody()).isEqualTo(first.getBody());
+    }
+
+    @Test
+    @DisplayName("Should serve OpenMetrics when requested")
+    void shouldServeOpenMetrics() {
+        ResponseEntity<byte[]> response = scrape("application/openmetrics-text; version=1.0.0", null);
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE)).startsWith("application/openmetrics-text");
+        assertThat(new String(response.getBody(), StandardCharsets.UTF_8).strip()).endsWith("# EOF");
+    }
+
+    @Test
+    @DisplayName("Should gzip the cached body when the scraper accepts it")
+    void shouldGzipBody() throws IOException {
+        ResponseEntity<byte[]> plain = scrape("text/plain", null);
+        ResponseEntity<byte[]> gzipped = scrape("text/plain", "gzip");
+
+        assertThat(gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            assertThat(in.readAllBytes()).isEqualTo(plain.getBody());
+        }
+    }
+
+    private ResponseEntity<byte[]> scrape(String accept, String acceptEncoding) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT, accept);
+        if (acceptEncoding != null) {
+            headers.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return restTemplate.exchange("http://localhost:" + port + "/metrics", HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class);
+    }
+}
@@ -0,0 +1,251 @@
+package com.learn.springboot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Measures allocation and latency of a request-sized operation on the calling thread, checks the
+ * result against the budgets in {@code performance-budgets.properties} and collects a
+ * machine-readable report.
+ * <p>
+ * Allocation is deterministic enough to gate on. Most of what a request allocates under MockMvc is
+ * the harness itself, so an operation can be measured alternately with a baseline operation and
+ * gated on the difference (its net bytes) with an absolute tolerance; a regression
+ * the size of the handler's own cost then fails the gate instead of disappearing in the harness.
+ * Wall-clock p99 depends on the machine, so it is only reported unless {@code latency.tolerance}
+ * is set.
+ */
+final class PerformanceProbe {
+
+    static final int WARMUP_ITERATIONS = 2_000;
+    static final int MEASURED_ITERATIONS = 5_000;
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final Properties budgets;
+    private final long allocationToleranceBytes;
+    private final Optional<Double> latencyTolerance;
+    private final Map<String, Result> results = new TreeMap<>();
+
+    PerformanceProbe() {
+        this.budgets = loadBudgets();
+        this.allocationToleranceBytes = Long.parseLong(budgets.getProperty("allocation.tolerance.bytes", "1024").strip());
+        this.latencyTolerance = Optional.ofNullable(budgets.getProperty("latency.tolerance"))
+                .map(String::strip)
+                .filter(value -> !value.isEmpty())
+                .map(Double::valueOf);
+    }
+
+    @FunctionalInterface
+    interface Operation {
+        void run() throws Exception;
+    }
+
+    record Result(
+            String name,
+            int iterations,
+            long bytesPerOp,
+            Long baselineBytesPerOp,
+            long p50Micros,
+            long p99Micros,
+            long maxMicros,
+            Long bytesBudget,
+            Long p99BudgetMicros
+    ) {
+
+        /**
+         * Bytes per operation above the baseline, or all of them when measured without one
+         */
+        long netBytesPerOp() {
+            return baselineBytesPerOp != null ? bytesPerOp - baselineBytesPerOp : bytesPerOp;
+        }
+
+        boolean allocationWithinBudget(long toleranceBytes) {
+            return bytesBudget == null || allocationWithin(bytesBudget, toleranceBytes);
+        }
+
+        boolean allocationWithin(long budget, long toleranceBytes) {
+            return netBytesPerOp() <= budget + toleranceBytes;
+        }
+
+        boolean latencyWithinBudget(double tolerance) {
+            return p99BudgetMicros == null || p99Micros <= p99BudgetMicros * (1 + tolerance);
+        }
+    }
+
+    /**
+     * Warm the operation up, then run it a fixed number of times on this thread, recording
+     * per-iteration latency and the bytes this thread allocated over the whole measured run.
+     * Allocation is checked against {@code <name>.bytesPerOp}.
+     */
+    Result measure(String name, Operation operation) throws Exception {
+        return record(name, run(operation), null, budget(name + ".bytesPerOp"));
+    }
+
+    /**
+     * Like {@link #measure(String, Operation)}, but alternates every iteration with {@code baseline}
+     * and checks only the bytes allocated above it against {@code <name>.netBytesPerOp}. Alternating
+     * keeps both under the same JIT state, which otherwise keeps shifting allocation for a while.
+     */
+    Result measure(String name, Operation operation, Operation baseline) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            baseline.run();
+            operation.run();
+        }
+
+        long[] latencies = new long[MEASURED_ITERATIONS];
+        long baselineAllocated = 0;
+        long allocated = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long before = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+            baseline.run();
+            long between = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            operation.run();
+            latencies[i] = System.nanoTime() - start;
+            allocated += THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - between;
+            baselineAllocated += between - before;
+        }
+
+        Arrays.sort(latencies);
+        return record(name, new Run(allocated / MEASURED_ITERATIONS, latencies),
+                baselineAllocated / MEASURED_ITERATIONS, budget(name + ".netBytesPerOp"));
+    }
+
+    private Result record(String name, Run run, Long baselineBytes, Long bytesBudget) {
+        Result result = new Result(
+                name,
+                MEASURED_ITERATIONS,
+                run.bytesPerOp(),
+                baselineBytes,
+                percentileMicros(run.latencies(), 50),
+                percentileMicros(run.latencies(), 99),
+                run.latencies()[run.latencies().length - 1] / 1_000,
+                bytesBudget,
+                budget(name + ".p99Micros")
+        );
+        results.put(name, result);
+        return result;
+    }
+
+    private record Run(long bytesPerOp, long[] latencies) {}
+
+    private static Run run(Operation operation) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.run();
+        }
+
+        long[] latencies = new long[MEASURED_ITERATIONS];
+        long allocatedBefore = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            operation.run();
+            latencies[i] = System.nanoTime() - start;
+        }
+        long allocated = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        Arrays.sort(latencies);
+        return new Run(allocated / MEASURED_ITERATIONS, latencies);
+    }
+
+    /**
+     * Result of an earlier {@link #measure} call, if it has run
+     */
+    Optional<Result> result(String name) {
+        return Optional.ofNullable(results.get(name));
+    }
+
+    /**
+     * Allowed allocation overshoot in bytes per operation
+     */
+    long allocationToleranceBytes() {
+        return allocationToleranceBytes;
+    }
+
+    /**
+     * Allowed p99 overshoot, or empty when latency is report-only
+     */
+    Optional<Double> latencyTolerance() {
+        return latencyTolerance;
+    }
+
+    /**
+     * Write every collected result as JSON for trend tracking
+     */
+    void writeReport() {
+        Path report = Path.of(System.getProperty("performance.report", "target/performance-report.json"));
+        StringBuilder json = new StringBuilder()
+                .append("{\n  \"timestamp\": \"").append(Instant.now()).append("\",\n")
+                .append("  \"javaVersion\": \"").append(System.getProperty("java.version")).append("\",\n")
+                .append("  \"allocationToleranceBytes\": ").append(allocationToleranceBytes).append(",\n")
+                .append("  \"latencyTolerance\": ").append(latencyTolerance.map(String::valueOf).orElse("null"))
+                .append(",\n")
+                .append("  \"results\": [");
+        String separator = "\n";
+        for (Result result : results.values()) {
+            // Without a budget there is nothing to be within, so the verdict is null rather than true
+            String allocationVerdict = result.bytesBudget() != null
+                    ? String.valueOf(result.allocationWithinBudget(allocationToleranceBytes)) : "null";
+            String latencyVerdict = result.p99BudgetMicros() != null && latencyTolerance.isPresent()
+                    ? String.valueOf(result.latencyWithinBudget(latencyTolerance.get())) : "null";
+            json.append(separator).append(String.format(Locale.ROOT,
+                    "    {\"name\": \"%s\", \"iterations\": %d, \"bytesPerOp\": %d, \"baselineBytesPerOp\": %s, "
+                            + "\"netBytesPerOp\": %d, \"p50Micros\": %d, "
+                            + "\"p99Micros\": %d, \"maxMicros\": %d, \"bytesBudget\": %s, \"p99BudgetMicros\": %s, "
+                            + "\"allocationWithinBudget\": %s, \"latencyWithinBudget\": %s}",
+                    result.name(), result.iterations(), result.bytesPerOp(), result.baselineBytesPerOp(),
+                    result.netBytesPerOp(), result.p50Micros(),
+                    result.p99Micros(), result.maxMicros(), result.bytesBudget(), result.p99BudgetMicros(),
+                    allocationVerdict, latencyVerdict));
+            separator = ",\n";
+        }
+        json.append("\n  ]\n}\n");
+
+        try {
+            if (report.getParent() != null) {
+                Files.createDirectories(report.getParent());
+            }
+            Files.writeString(report, json.toString(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write performance report " + report, e);
+        }
+    }
+
+    private Long budget(String key) {
+        String value = budgets.getProperty(key);
+        return value != null ? Long.valueOf(value.strip()) : null;
+    }
+
+    private static long percentileMicros(long[] sortedNanos, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedNanos.length);
+        return sortedNanos[Math.max(1, rank) - 1] / 1_000;
+    }
+
+    private static Properties loadBudgets() {
+        Properties properties = new Properties();
+        String location = System.getProperty("performance.budgets");
+        try (InputStream in = location != null
+                ? Files.newInputStream(Path.of(location))
+                : PerformanceProbe.class.getResourceAsStream("/performance-budgets.properties")) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read performance budgets", e);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,189 @@
+package com.learn.springboot;
+
+import com.learn.springboot.tracing.TailSamplingMetrics;
+import com.learn.springboot.tracing.TailSamplingSpanExporter;
+import com.sun.net.httpserver.HttpServer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tail Sampling Span Exporter Tests")
+class TailSamplingSpanExporterTest {
+
+    private HttpServer collector;
+    private final AtomicInteger exportRequests = new AtomicInteger();
+
+    private TailSamplingMetrics metrics;
+    private SdkTracerProvider tracerProvider;
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Local stand-in for an OTLP/HTTP collector that just counts export requests
+        collector = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        collector.createContext("/v1/traces", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                body.readAllBytes();
+            }
+            exportRequests.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "application/x-protobuf");
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        collector.start();
+
+        useExporter(2, 16, 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.shutdown().join(5, TimeUnit.SECONDS);
+        collector.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should drop fast traces and export slow ones")
+    void shouldKeepOnlySlowTraces() {
+        trace("/healthz", 5, false);
+        flush();
+        assertThat(exportRequests).hasValue(0);
+
+        trace("/healthz", 120, false);
+        flush();
+        assertThat(exportRequests).hasValue(1);
+
+        assertThat(metrics.keptTraces()).isEqualTo(1);
+        assertThat(metrics.droppedTraces()).isEqualTo(1);
+        assertThat(metrics.bufferedTraces()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should export fast traces that errored")
+    void shouldKeepErroredTraces() {
+        trace("/info", 1, true);
+        flush();
+
+        assertThat(exportRequests).hasValue(1);
+        assertThat(metrics.keptTraces()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should decide the eldest trace early when the buffer is full")
+    void shouldBoundTheBuffer() {
+        Span[] roots = new Span[3];
+        for (int i = 0; i < roots.length; i++) {
+            roots[i] = tracer.spanBuilder("GET /healthz").startSpan();
+            tracer.spanBuilder("child").setParent(Context.current().with(roots[i])).startSpan().end();
+        }
+        flush();
+
+        assertThat(metrics.overflowTraces()).isEqualTo(1);
+        assertThat(metrics.bufferedTraces()).isEqualTo(2);
+        assertThat(metrics.bufferedSpans()).isEqualTo(2);
+
+        for (Span root : roots) {
+            root.end();
+        }
+    }
+
+    @Test
+    @DisplayName("Should cap the number of spans buffered per trace")
+    void shouldCapSpansPerTrace() {
+        tracerProvider.shutdown().join(5, TimeUnit.SECONDS);
+        useExporter(2, 2, 1024);
+
+        Span root = tracer.spanBuilder("GET /info").startSpan();
+        for (int i = 0; i < 5; i++) {
+            tracer.spanBuilder("child-" + i).setParent(Context.current().with(root)).startSpan().end();
+        }
+        flush();
+
+        assertThat(metrics.bufferedSpans()).isEqualTo(2);
+        assertThat(metrics.droppedSpans()).isEqualTo(3);
+        root.end();
+    }
+
+    @Test
+    @DisplayName("Should decide the eldest traces early when the total span limit is reached")
+    void shouldCapTotalBufferedSpans() {
+        tracerProvider.shutdown().join(5, TimeUnit.SECONDS);
+        useExporter(16, 16, 4);
+
+        Span[] roots = new Span[3];
+        for (int i = 0; i < roots.length; i++) {
+            roots[i] = tracer.spanBuilder("GET /info").startSpan();
+            for (int j = 0; j < 2; j++) {
+                tracer.spanBuilder("child-" + j).setParent(Context.current().with(roots[i])).startSpan().end();
+            }
+        }
+        flush();
+
+        assertThat(metrics.bufferedSpans()).isEqualTo(4);
+        assertThat(metrics.bufferedTraces()).isEqualTo(2);
+        assertThat(metrics.overflowTraces()).isEqualTo(1);
+
+        for (Span root : roots) {
+            root.end();
+        }
+    }
+
+    private void useExporter(int maxTraces, int maxSpansPerTrace, int maxBufferedSpans) {
+        metrics = new TailSamplingMetrics();
+        OtlpHttpSpanExporter otlpExporter = OtlpHttpSpanExporter.builder()
+                .setEndpoint("http://localhost:" + collector.getAddress().getPort() + "/v1/traces")
+                .build();
+        TailSamplingSpanExporter.Policy policy = new TailSamplingSpanExporter.Policy(
+                Duration.ofMillis(500),
+                Map.of("/healthz", Duration.ofMillis(50)),
+                0.0,
+                maxTraces,
+                maxSpansPerTrace,
+                maxBufferedSpans,
+                Duration.ofMinutes(1)
+        );
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(
+                        new TailSamplingSpanExporter(otlpExporter, policy, metrics)))
+                .build();
+        tracer = tracerProvider.get("tail-sampling-test");
+    }
+
+    private void trace(String route, long durationMillis, boolean error) {
+        long start = System.currentTimeMillis();
+        Span root = tracer.spanBuilder("GET " + route)
+                .setStartTimestamp(start, TimeUnit.MILLISECONDS)
+                .setAttribute("http.route", route)
+                .startSpan();
+        tracer.spanBuilder("child")
+                .setParent(Context.current().with(root))
+                .setStartTimestamp(start, TimeUnit.MILLISECONDS)
+                .startSpan()
+                .end(start + 1, TimeUnit.MILLISECONDS);
+        if (error) {
+            root.setStatus(StatusCode.ERROR);
+        }
+        root.end(start + durationMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,91 @@
+package com.learn.springboot;
+
+import com.learn.springboot.metrics.QueueTimingExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.coyote.AbstractProtocol;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.tomcat.TomcatWebServer;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DisplayName("Tomcat Saturation Metrics Integration Tests")
+class TomcatSaturationMetricsIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private WebServerApplicationContext context;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final RestTemplate restTemplate = new RestTemplate();
+
+    @Test
+    @DisplayName("Should serve requests through the queue-timing executor")
+    void shouldInstallQueueTimingExecutor() {
+        restTemplate.getForObject("http://localhost:" + port + "/ping", String.class);
+
+        TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+        assertThat(webServer.getTomcat().getConnector().getProtocolHandler().getExecutor())
+                .isInstanceOf(QueueTimingExecutor.class);
+    }
+
+    @Test
+    @DisplayName("Should record queue wait when requests are dispatched to workers")
+    void shouldRecordQueueWait() {
+        Timer queueWait = meterRegistry.get("tomcat.executor.queue.wait").timer();
+        long before = queueWait.count();
+
+        for (int i = 0; i < 5; i++) {
+            restTemplate.getForObject("http://localhost:" + port + "/ping", String.class);
+        }
+
+        // A keep-alive connection can serve several requests in one dispatch, so only expect progress
+        assertThat(queueWait.count()).isGreaterThan(before);
+        assertThat(queueWait.totalTime(TimeUnit.NANOSECONDS)).isGreaterThan(0.0);
+    }
+
+    @Test
+    @DisplayName("Should report finite executor, connection and saturation gauges")
+    void shouldReportFiniteGauges() {
+        restTemplate.getForObject("http://localhost:" + port + "/ping", String.class);
+
+        assertThat(gauge("tomcat.executor.threads.max")).isEqualTo(200.0);
+        assertThat(gauge("tomcat.executor.threads.busy")).isBetween(0.0, 200.0);
+        assertThat(gauge("tomcat.executor.queue.size")).isGreaterThanOrEqualTo(0.0);
+        assertThat(gauge("tomcat.connections.max")).isEqualTo(8192.0);
+        assertThat(gauge("tomcat.connections.active")).isGreaterThanOrEqualTo(0.0);
+        assertThat(gauge("tomcat.connections.keepalive")).isGreaterThanOrEqualTo(0.0);
+        assertThat(gauge("tomcat.connections.accept.backlog")).isEqualTo(100.0);
+        assertThat(gauge("tomcat.saturation")).isBetween(0.0, 1.0);
+    }
+
+    @Test
+    @DisplayName("Should report the connector's own max threads as -1 for the external executor")
+    void shouldReportExternalExecutorToConnector() {
+        // Backs Spring Boot's tomcat.threads.config.max
+        AbstractProtocol<?> protocol = (AbstractProtocol<?>) ((TomcatWebServer) context.getWebServer())
+                .getTomcat().getConnector().getProtocolHandler();
+
+        assertThat(protocol.getMaxThreads()).isEqualTo(-1);
+        assertThat(gauge("tomcat.executor.threads.max")).isEqualTo(200.0);
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+}
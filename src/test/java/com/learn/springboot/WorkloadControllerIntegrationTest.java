@@ -0,0 +1,117 @@
+package com.learn.springboot;
+
+import com.learn.springboot.service.WorkloadService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// A property cap well above the heap, so that the heap-derived cap is the one in force
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.workload.max-retained-mb=1048576")
+@ActiveProfiles({"test", "workload"})
+@DisplayName("Workload Controller Integration Tests")
+class WorkloadControllerIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private WorkloadService workloadService;
+
+    private final RestTemplate restTemplate = new RestTemplate();
+
+    @Test
+    @DisplayName("Should perform the requested work and report its cost")
+    void shouldReportWorkloadCost() {
+        String url = "http://localhost:" + port
+                + "/workload?cpuMillis=20&allocateKb=512&retainKb=64&sleepMillis=5&lockHoldMillis=1&directBufferKb=64";
+        String response = restTemplate.getForObject(url, String.class);
+
+        assertThat(response).isNotNull();
+        assertThat(response).contains("\"success\":true");
+        assertThat(response).contains("\"requested\"").contains("\"cpuMillis\":20");
+        assertThat(response).contains("\"allocatedBytes\"").contains("\"directBufferBytes\":65536");
+        assertThat(response).contains("\"retainedBytesTotal\"");
+    }
+
+    @Test
+    @DisplayName("Should reject out-of-range parameters in the standard error format")
+    void shouldRejectOutOfRangeParameters() {
+        String url = "http://localhost:" + port + "/workload?cpuMillis=999999&sleepMillis=-1";
+
+        assertThatThrownBy(() -> restTemplate.getForObject(url, String.class))
+                .isInstanceOfSatisfying(HttpClientErrorException.BadRequest.class, ex -> {
+                    String body = ex.getResponseBodyAsString();
+                    assertThat(body).contains("\"error\":true");
+                    assertThat(body).contains("Validation failed");
+                    assertThat(body).contains("cpuMillis must be <= 2000");
+                    assertThat(body).contains("sleepMillis must be >= 0");
+                });
+    }
+
+    @Test
+    @DisplayName("Should release retained memory")
+    void shouldReleaseRetainedMemory() {
+        restTemplate.getForObject("http://localhost:" + port + "/workload?retainKb=128", String.class);
+        restTemplate.delete("http://localhost:" + port + "/workload/retained");
+
+        String response = restTemplate.getForObject("http://localhost:" + port + "/workload", String.class);
+        assertThat(response).contains("\"retainedBytesTotal\":0");
+    }
+
+    @Test
+    @Timeout(120)
+    @DisplayName("Should cap retained memory below the heap and stay responsive past the cap")
+    @SuppressWarnings("unchecked")
+    void shouldStayResponsiveWhenRetainingPastTheCap() {
+        long expectedLimit = Runtime.getRuntime().maxMemory() / 100 * 25;
+        long requests = expectedLimit / (16384 * 1024) + 4;
+        try {
+            for (int i = 0; i < requests; i++) {
+                Map<String, Object> response = restTemplate.getForObject(
+                        "http://localhost:" + port + "/workload?retainKb=16384", Map.class);
+                Map<String, Object> cost = (Map<String, Object>) ((Map<String, Object>) response.get("data")).get("cost");
+
+                assertThat(((Number) cost.get("retainedBytesLimit")).longValue()).isEqualTo(expectedLimit);
+                assertThat(((Number) cost.get("retainedBytesTotal")).longValue()).isLessThanOrEqualTo(expectedLimit);
+            }
+
+            assertThat(restTemplate.getForObject("http://localhost:" + port + "/info", String.class))
+                    .contains("\"success\":true");
+        } finally {
+            restTemplate.delete("http://localhost:" + port + "/workload/retained");
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a direct buffer larger than the JVM's direct memory limit")
+    void shouldRejectDirectBufferAboveJvmLimit() {
+        Object maxDirectBytes = ReflectionTestUtils.getField(workloadService, "maxDirectBytes");
+        // As with -XX:MaxDirectMemorySize=8m
+        ReflectionTestUtils.setField(workloadService, "maxDirectBytes", 8L * 1024 * 1024);
+        try {
+            String url = "http://localhost:" + port + "/workload?directBufferKb=16384";
+
+            assertThatThrownBy(() -> restTemplate.getForObject(url, String.class))
+                    .isInstanceOfSatisfying(HttpClientErrorException.BadRequest.class, ex -> {
+                        String body = ex.getResponseBodyAsString();
+                        assertThat(body).contains("Validation failed");
+                        assertThat(body).contains("directBufferKb must be <= 8192");
+                    });
+        } finally {
+            ReflectionTestUtils.setField(workloadService, "maxDirectBytes", maxDirectBytes);
+        }
+    }
+}